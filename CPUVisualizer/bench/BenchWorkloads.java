@@ -0,0 +1,49 @@
+package CPUVisualizer.bench;
+
+import CPUVisualizer.src.algo_ui.Workload;
+
+import java.util.Random;
+
+// Seeded synthetic workloads for the benchmarks. Bursts are uniform in 1..20.
+final class BenchWorkloads {
+    static final int MAX_BURST = 20;
+
+    private BenchWorkloads() {}
+
+    static Workload create(int size, String distribution, long seed) {
+        Random rand = new Random(seed);
+        Workload w = new Workload(size);
+        long meanBurst = (1 + MAX_BURST) / 2;
+        switch (distribution) {
+            case "BURSTY": {
+                // Clumps of simultaneous arrivals separated by quiet periods.
+                int clump = Math.max(1, size / 100);
+                long time = 0;
+                for (int i = 0; i < size; i++) {
+                    if (i % clump == 0) time += clump * meanBurst * 2;
+                    w.add(i, (int) time, 1 + rand.nextInt(MAX_BURST));
+                }
+                break;
+            }
+            case "UNIFORM": {
+                // Offered load close to 1: arrivals spread over the total burst time.
+                long span = Math.max(1, size * meanBurst);
+                for (int i = 0; i < size; i++) {
+                    w.add(i, (int) (rand.nextDouble() * span), 1 + rand.nextInt(MAX_BURST));
+                }
+                break;
+            }
+            case "SPARSE": {
+                // Offered load around 0.1, so most of the timeline is idle gaps.
+                long span = Math.max(1, size * meanBurst * 10);
+                for (int i = 0; i < size; i++) {
+                    w.add(i, (int) (rand.nextDouble() * span), 1 + rand.nextInt(MAX_BURST));
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return w;
+    }
+}
@@ -0,0 +1,78 @@
+package CPUVisualizer.bench;
+
+import CPUVisualizer.src.algo_ui.GanttBlock;
+import CPUVisualizer.src.algo_ui.SchedulerLogic;
+import CPUVisualizer.src.algo_ui.Workload;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The engines the UI and batch runner use. Every engine sorts and mutates its
+// input, so each invocation schedules fresh copies; copyWorkload measures that
+// copy on its own so it can be subtracted.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EngineBenchmark {
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"BURSTY", "UNIFORM", "SPARSE"})
+    public String distribution;
+
+    @Param({"2", "8"})
+    public int quantum;
+
+    @Param({"4"})
+    public int levels;
+
+    private Workload base;
+    private List<SchedulerLogic.Process> scheduled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchWorkloads.create(size, distribution, 42);
+        scheduled = base.toProcesses();
+        SchedulerLogic.runFIFO(scheduled);
+    }
+
+    @Benchmark
+    public List<SchedulerLogic.Process> copyWorkload() {
+        return base.toProcesses();
+    }
+
+    @Benchmark
+    public List<GanttBlock> fifo() {
+        return SchedulerLogic.runFIFO(base.toProcesses());
+    }
+
+    @Benchmark
+    public List<GanttBlock> sjf() {
+        return SchedulerLogic.runSJF(base.toProcesses());
+    }
+
+    @Benchmark
+    public List<GanttBlock> srtf() {
+        return SchedulerLogic.runSRTFEvents(base.toProcesses());
+    }
+
+    @Benchmark
+    public List<GanttBlock> roundRobin() {
+        return SchedulerLogic.runRoundRobinEvents(base.toProcesses(), quantum);
+    }
+
+    @Benchmark
+    public List<GanttBlock> mlfq() {
+        return SchedulerLogic.runMLFQEvents(base.toProcesses(), SchedulerLogic.mlfqQuantums(quantum, levels));
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateAverages() {
+        return SchedulerLogic.calculateAverages(scheduled);
+    }
+}
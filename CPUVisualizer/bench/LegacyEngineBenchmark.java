@@ -0,0 +1,51 @@
+package CPUVisualizer.bench;
+
+import CPUVisualizer.src.algo_ui.GanttBlock;
+import CPUVisualizer.src.algo_ui.SchedulerLogic;
+import CPUVisualizer.src.algo_ui.Workload;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The original tick-by-tick engines, kept as the baseline for the rewrites in
+// EngineBenchmark. They are quadratic, so sizes stop at 10k.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LegacyEngineBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    @Param({"BURSTY", "UNIFORM", "SPARSE"})
+    public String distribution;
+
+    @Param({"2", "8"})
+    public int quantum;
+
+    private Workload base;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        base = BenchWorkloads.create(size, distribution, 42);
+    }
+
+    @Benchmark
+    public List<GanttBlock> srtf() {
+        return SchedulerLogic.runSRTF(base.toProcesses());
+    }
+
+    @Benchmark
+    public List<GanttBlock> roundRobin() {
+        return SchedulerLogic.runRoundRobin(base.toProcesses(), quantum);
+    }
+
+    @Benchmark
+    public List<GanttBlock> mlfq() {
+        return SchedulerLogic.runMLFQ(base.toProcesses(),
+                new int[]{quantum, quantum + 1, quantum + 2, quantum + 3});
+    }
+}
@@ -0,0 +1,122 @@
+package CPUVisualizer.jfr;
+
+import CPUVisualizer.src.algo_ui.Instrumentation;
+import CPUVisualizer.src.algo_ui.SimulationProbe;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Instrumentation sink that turns probes and repaints into JFR events, so a
+// recording (e.g. -XX:StartFlightRecording, or JMC attached to a running
+// session) shows them next to GC and thread activity. Compiled for Java 11
+// and loaded by name, so the core still runs on Java 8 without it.
+public class JfrSink implements Instrumentation.Sink {
+    private static final EventType SIMULATION = EventType.getEventType(SimulationEvent.class);
+    private static final EventType PAINT = EventType.getEventType(PaintEvent.class);
+
+    @Name("cpuvisualizer.Simulation")
+    @Label("Simulation")
+    @Category("Schedule Visualizer")
+    @Description("One scheduling run: phase times and engine counters")
+    @StackTrace(false)
+    public static class SimulationEvent extends Event {
+        @Label("Configuration")
+        public String config;
+
+        @Label("Processes")
+        public int processes;
+
+        @Label("Parse")
+        @Timespan
+        public long parse;
+
+        @Label("Schedule")
+        @Timespan
+        public long schedule;
+
+        @Label("Table Model")
+        @Timespan
+        public long table;
+
+        @Label("Paint")
+        @Timespan
+        public long paint;
+
+        @Label("Events")
+        public long events;
+
+        @Label("Slices")
+        public long slices;
+
+        @Label("Blocks")
+        public long blocks;
+
+        @Label("Allocated")
+        @DataAmount
+        public long allocated;
+
+        @Label("Peak Queue Depth")
+        @Description("Deepest ready queue per MLFQ level, slash-separated")
+        public String peakQueueDepth;
+    }
+
+    @Name("cpuvisualizer.Paint")
+    @Label("Gantt Repaint")
+    @Category("Schedule Visualizer")
+    @StackTrace(false)
+    public static class PaintEvent extends Event {
+        @Label("Paint Time")
+        @Timespan
+        public long nanos;
+
+        @Label("Blocks Drawn")
+        public int blocks;
+
+        @Label("Lanes")
+        public int lanes;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return SIMULATION.isEnabled() || PAINT.isEnabled();
+    }
+
+    @Override
+    public void simulation(SimulationProbe probe) {
+        SimulationEvent e = new SimulationEvent();
+        if (!e.shouldCommit()) return;
+        e.config = probe.config();
+        e.processes = probe.processes();
+        e.parse = probe.parseNanos();
+        e.schedule = probe.scheduleNanos();
+        e.table = probe.tableNanos();
+        e.paint = probe.paintNanos();
+        e.events = probe.events();
+        e.slices = probe.slices();
+        e.blocks = probe.blocks();
+        e.allocated = probe.allocatedBytes();
+        StringBuilder depth = new StringBuilder();
+        for (int d : probe.peakQueueDepth()) {
+            if (depth.length() > 0) depth.append('/');
+            depth.append(d);
+        }
+        e.peakQueueDepth = depth.toString();
+        e.commit();
+    }
+
+    @Override
+    public void paint(long nanos, int blocks, int lanes) {
+        PaintEvent e = new PaintEvent();
+        if (!e.shouldCommit()) return;
+        e.nanos = nanos;
+        e.blocks = blocks;
+        e.lanes = lanes;
+        e.commit();
+    }
+}
@@ -1,9 +1,21 @@
 package CPUVisualizer.src;
 
+import CPUVisualizer.src.algo_ui.BatchRunner;
+import CPUVisualizer.src.algo_ui.Instrumentation;
 import CPUVisualizer.src.algo_ui.SchedulerUI;
+import CPUVisualizer.src.algo_ui.WorkloadGenerator;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--generate")) {
+            WorkloadGenerator.main(args);
+            return;
+        }
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
+     Instrumentation.registerMBean();
      javax.swing.SwingUtilities.invokeLater(SchedulerUI::new);
     }
 }
\ No newline at end of file
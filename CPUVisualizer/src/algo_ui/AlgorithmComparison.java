@@ -0,0 +1,128 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs every SchedulerLogic algorithm on one read-only base workload at the
+// same time, one thread each, so the wall time is about that of the slowest
+// algorithm. Each engine gets its own Process objects from base.toProcesses(),
+// since the engines sort and mutate what they are given. Results keep the
+// base's row order, so run i's row r is the same process for every i.
+public class AlgorithmComparison {
+
+    public static class Run {
+        public final String algorithm;
+        public final Timeline timeline;
+        public final Workload results;
+        public final RunStatistics stats;
+        // CPU time spent simulating, or 0 when the run came from the cache.
+        // Summed over the runs, it is what running them one by one would take.
+        public final long nanos;
+
+        Run(String algorithm, Timeline timeline, Workload results, long nanos) {
+            this.algorithm = algorithm;
+            this.timeline = timeline;
+            this.results = results;
+            this.stats = RunStatistics.of(new BlockSource[]{timeline}, results);
+            this.nanos = nanos;
+        }
+    }
+
+    public static List<Run> run(Workload base, int quantum, int levels) {
+        return run(base, quantum, levels, null);
+    }
+
+    // One Run per SchedulerLogic.ALGORITHMS entry, in that order.
+    public static List<Run> run(Workload base, int quantum, int levels, ResultCache cache) {
+        String[] algorithms = SchedulerLogic.ALGORITHMS;
+        ExecutorService pool = Executors.newFixedThreadPool(algorithms.length, r -> {
+            Thread t = new Thread(r, "compare");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<Run>> futures = new ArrayList<>();
+            for (String algorithm : algorithms) {
+                futures.add(CompletableFuture.supplyAsync(() -> runOne(base, algorithm, quantum, levels, cache), pool));
+            }
+            List<Run> runs = new ArrayList<>();
+            for (CompletableFuture<Run> f : futures) runs.add(f.join());
+            return runs;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Run runOne(Workload base, String algorithm, int quantum, int levels, ResultCache cache) {
+        long[] nanos = {0};
+        ResultCache.Entry entry;
+        if (cache == null) {
+            entry = simulate(base, algorithm, quantum, levels, nanos);
+        } else {
+            entry = cache.computeIfAbsent(ResultCache.key(base, algorithm, quantum, levels, null),
+                    () -> simulate(base, algorithm, quantum, levels, nanos));
+        }
+        Workload results = entry.results;
+        int[] rows = alignRows(base, results);
+        if (rows != null) results = reorder(results, rows);
+        return new Run(algorithm, entry.lanes[0], results, nanos[0]);
+    }
+
+    private static ResultCache.Entry simulate(Workload base, String algorithm, int quantum, int levels, long[] nanos) {
+        List<SchedulerLogic.Process> processes = base.toProcesses();
+        long t0 = cpuTime();
+        // The engine reorders its own list; `processes` keeps the base order.
+        Timeline t = Timeline.of(SchedulerLogic.run(algorithm, new ArrayList<>(processes), quantum, levels));
+        nanos[0] = cpuTime() - t0;
+        return new ResultCache.Entry(new Timeline[]{t}, Workload.of(processes));
+    }
+
+    private static long cpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // For each base row, the row of results holding the same process, or null
+    // if the rows already line up. Cached entries from other callers may be in
+    // the engine's order; equal pids are paired in row order.
+    static int[] alignRows(Workload base, Workload results) {
+        if (Arrays.equals(Arrays.copyOf(base.id, base.size()), Arrays.copyOf(results.id, results.size()))) {
+            return null;
+        }
+        long[] a = sortedKeys(base), b = sortedKeys(results);
+        int[] rows = new int[base.size()];
+        for (int k = 0; k < a.length; k++) rows[(int) a[k]] = (int) b[k];
+        return rows;
+    }
+
+    private static long[] sortedKeys(Workload w) {
+        long[] keys = new long[w.size()];
+        for (int row = 0; row < keys.length; row++) keys[row] = ((long) w.id[row] << 32) | row;
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static Workload reorder(Workload w, int[] rows) {
+        Workload out = new Workload(Math.max(1, rows.length));
+        for (int r : rows) {
+            int row = out.add(w.id[r], w.arrival[r], w.burst[r]);
+            out.remaining[row] = w.remaining[r];
+            out.start[row] = w.start[r];
+            out.completion[row] = w.completion[r];
+            out.waiting[row] = w.waiting[r];
+            out.turnaround[row] = w.turnaround[r];
+            out.response[row] = w.response[r];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,376 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless entry point: runs every workload file against every algorithm and
+// quantum/level combination on a fork-join pool and streams one metrics line
+// per run. Only touches SchedulerLogic and the plain data classes, never AWT.
+public class BatchRunner {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: Main --batch [options] <workload files...>",
+            "  -a, --algorithms LIST   comma-separated, default " + String.join(",", SchedulerLogic.ALGORITHMS),
+            "  -q, --quantum LIST      comma-separated quanta for RR/MLFQ/CFS/EEVDF, default 2",
+            "  -l, --levels LIST       comma-separated MLFQ level counts (CFS: tasks per latency), default 4",
+            "  -c, --cpus LIST         comma-separated CPU counts, default 1 (CFS/EEVDF run on 1 only)",
+            "  -b, --balancing MODE    global|periodic|stealing for multi-CPU runs, default global",
+            "      --migration-cost N  time units a process loses when it changes CPU, default 0",
+            "  -f, --format csv|json   output format, default csv",
+            "  -p, --parallelism N     worker threads, default all cores",
+            "  -o, --output FILE       write results to FILE instead of stdout",
+            "      --cache-mb N        memory for reusing identical runs, default 256",
+            "      --cache-dir DIR     keep evicted runs in DIR and reuse them in later batches",
+            "Workload lines hold 'pid arrival burst' or 'arrival burst', separated by",
+            "commas or whitespace; blank lines, # comments and headers are skipped.");
+
+    private static final String CSV_HEADER =
+            "file,algorithm,quantum,levels,cpus,processes,blocks,makespan,avgWaiting,avgTurnaround,avgResponse,"
+                    + "waitingP50,waitingP90,waitingP99,waitingP999,turnaroundP50,turnaroundP90,turnaroundP99,"
+                    + "turnaroundP999,responseP50,responseP90,responseP99,responseP999,waitingStddev,"
+                    + "utilization,idle,contextSwitches,throughput,millis";
+    private static final String[] PERCENTILE_NAMES = {"P50", "P90", "P99", "P999"};
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final List<String> algorithms = new ArrayList<>(Arrays.asList(SchedulerLogic.ALGORITHMS));
+    private int[] quanta = {2};
+    private int[] levels = {4};
+    private int[] cpuCounts = {1};
+    private MultiCoreScheduler.Balancing balancing = MultiCoreScheduler.Balancing.GLOBAL;
+    private int migrationCost;
+    private boolean json;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private Path output;
+    private long cacheBytes = 256L << 20;
+    private Path cacheDir;
+    private ResultCache cache;
+    private final List<Path> files = new ArrayList<>();
+
+    private Writer out;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Instrumentation.registerMBean();
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            runner.runAll();
+        } catch (IOException e) {
+            System.err.println("batch: " + e.getMessage());
+            System.exit(1);
+        }
+        if (runner.failures.get() > 0) System.exit(1);
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--batch":
+                    break;
+                case "-a": case "--algorithms":
+                    algorithms.clear();
+                    for (String a : value(args, ++i, arg).split(",")) {
+                        String name = Policies.find(a.trim());
+                        if (name == null) throw new IllegalArgumentException("Unknown algorithm: " + a);
+                        algorithms.add(name);
+                    }
+                    break;
+                case "-q": case "--quantum":
+                    quanta = intList(value(args, ++i, arg), arg);
+                    break;
+                case "-l": case "--levels":
+                    levels = intList(value(args, ++i, arg), arg);
+                    break;
+                case "-c": case "--cpus":
+                    cpuCounts = intList(value(args, ++i, arg), arg);
+                    break;
+                case "-b": case "--balancing":
+                    String mode = value(args, ++i, arg);
+                    try {
+                        balancing = MultiCoreScheduler.Balancing.valueOf(mode.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown balancing mode: " + mode);
+                    }
+                    break;
+                case "--migration-cost":
+                    migrationCost = intList(value(args, ++i, arg), arg)[0];
+                    break;
+                case "-f": case "--format":
+                    String format = value(args, ++i, arg);
+                    if (!format.equals("csv") && !format.equals("json")) {
+                        throw new IllegalArgumentException("Unknown format: " + format);
+                    }
+                    json = format.equals("json");
+                    break;
+                case "-p": case "--parallelism":
+                    parallelism = Math.max(1, intList(value(args, ++i, arg), arg)[0]);
+                    break;
+                case "-o": case "--output":
+                    output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--cache-mb":
+                    cacheBytes = Math.max(0, intList(value(args, ++i, arg), arg)[0]) * (1L << 20);
+                    break;
+                case "--cache-dir":
+                    cacheDir = Paths.get(value(args, ++i, arg));
+                    break;
+                case "-h": case "--help":
+                    throw new IllegalArgumentException("");
+                default:
+                    if (arg.startsWith("-")) throw new IllegalArgumentException("Unknown option: " + arg);
+                    files.add(Paths.get(arg));
+            }
+        }
+        if (files.isEmpty()) throw new IllegalArgumentException("No workload files given.");
+        for (String algorithm : algorithms) {
+            if (MultiCoreScheduler.supports(algorithm)) continue;
+            for (int cpus : cpuCounts) {
+                if (cpus > 1) {
+                    System.err.println("batch: " + algorithm + " runs on one CPU only; skipping its multi-CPU runs");
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+        return args[i];
+    }
+
+    private static int[] intList(String text, String option) {
+        String[] parts = text.split(",");
+        int[] values = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) values[i] = Integer.parseInt(parts[i].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number list for " + option + ": " + text);
+        }
+        return values;
+    }
+
+    private void runAll() throws IOException {
+        cache = new ResultCache(cacheBytes);
+        if (cacheDir != null) cache.spillTo(cacheDir);
+        out = output == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+        try {
+            if (!json) writeLine(CSV_HEADER);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<FileTask> tasks = new ArrayList<>();
+                for (Path file : files) tasks.add(new FileTask(file));
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    // Loads one file into a read-only Workload, then fans out one RunTask per
+    // distinct configuration (e.g. "-q 2,2" or FCFS under several quanta run once).
+    private class FileTask extends RecursiveAction {
+        private final Path file;
+
+        FileTask(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected void compute() {
+            Workload base;
+            long parseStart = System.nanoTime();
+            try {
+                base = readWorkload(file);
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                System.err.println("batch: cannot read " + file + ": " + e.getMessage());
+                return;
+            }
+            long parseNanos = System.nanoTime() - parseStart;
+            List<RunTask> runs = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (int cpus : cpuCounts) {
+                for (String algorithm : algorithms) {
+                    if (cpus > 1 && !MultiCoreScheduler.supports(algorithm)) continue;
+                    PolicyProvider provider = Policies.get(algorithm);
+                    for (int q : provider.usesQuantum() ? quanta : new int[]{0}) {
+                        for (int l : provider.usesLevels() ? levels : new int[]{0}) {
+                            runs.add(new RunTask(file, base, parseNanos, algorithm, q, l, cpus));
+                        }
+                    }
+                }
+            }
+            runs.removeIf(run -> !seen.add(run.config()));
+            invokeAll(runs);
+        }
+    }
+
+    private class RunTask extends RecursiveAction {
+        private final Path file;
+        private final Workload base;
+        private final long parseNanos;
+        private final String algorithm;
+        private final int quantum, levelCount, cpus;
+
+        RunTask(Path file, Workload base, long parseNanos, String algorithm, int quantum, int levelCount, int cpus) {
+            this.file = file;
+            this.base = base;
+            this.parseNanos = parseNanos;
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.levelCount = levelCount;
+            this.cpus = Math.max(1, cpus);
+        }
+
+        MultiCoreScheduler multiCore() {
+            return cpus == 1 ? null : new MultiCoreScheduler(cpus, balancing).migrationCost(migrationCost);
+        }
+
+        String config() {
+            return ResultCache.config(algorithm, quantum, levelCount, multiCore());
+        }
+
+        // Runs answered from the cache are not reported to Instrumentation;
+        // each simulated one is, with its file's parse time.
+        private ResultCache.Entry simulate(MultiCoreScheduler multiCore) {
+            SimulationProbe probe = Instrumentation.begin(config(), base.size());
+            SimulationListener listener = SimulationListener.NONE;
+            if (probe != null) {
+                probe.parsed(parseNanos);
+                listener = probe.wrap(listener);
+                probe.beginSchedule();
+            }
+            // Engines sort and mutate their input, so each run gets its own copies.
+            List<SchedulerLogic.Process> processes = base.toProcesses();
+            Timeline[] lanes = multiCore != null
+                    ? multiCore.run(algorithm, processes, quantum, levelCount, listener).lanes
+                    : new Timeline[]{Timeline.of(SchedulerLogic.run(algorithm, processes, quantum, levelCount,
+                            listener))};
+            if (probe != null) {
+                long blocks = 0;
+                for (Timeline lane : lanes) blocks += lane.size();
+                probe.endSchedule(blocks);
+                Instrumentation.end(probe);
+            }
+            return new ResultCache.Entry(lanes, Workload.of(processes));
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                long t0 = System.nanoTime();
+                // Identical files share one run through the cache.
+                MultiCoreScheduler multiCore = multiCore();
+                ResultCache.Entry entry = cache.computeIfAbsent(
+                        ResultCache.key(base, algorithm, quantum, levelCount, multiCore), () -> simulate(multiCore));
+                int blocks = 0;
+                for (Timeline lane : entry.lanes) blocks += lane.size();
+                RunStatistics stats = entry.statistics();
+                long millis = (System.nanoTime() - t0) / 1_000_000;
+                report(this, entry.results.toProcesses(), blocks, stats, millis);
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                System.err.println("batch: " + algorithm + " on " + file + " failed: " + e);
+            }
+        }
+    }
+
+    private void report(RunTask run, List<SchedulerLogic.Process> processes, int blocks,
+                        RunStatistics stats, long millis) throws IOException {
+        int makespan = 0;
+        for (SchedulerLogic.Process p : processes) makespan = Math.max(makespan, p.completion);
+        Map<String, Double> avg = processes.isEmpty() ? null : SchedulerLogic.calculateAverages(processes);
+        double wt = avg == null ? 0 : avg.get("avgWaiting");
+        double tat = avg == null ? 0 : avg.get("avgTurnaround");
+        double rt = avg == null ? 0 : avg.get("avgResponse");
+
+        StringBuilder tail = new StringBuilder();
+        String[] metricNames = {"waiting", "turnaround", "response"};
+        RunStatistics.Metric[] metrics = {stats.waiting, stats.turnaround, stats.response};
+        for (int m = 0; m < metrics.length; m++) {
+            for (int q = 0; q < PERCENTILES.length; q++) {
+                field(tail, metricNames[m] + PERCENTILE_NAMES[q], metrics[m].percentile(PERCENTILES[q]));
+            }
+        }
+        field(tail, "waitingStddev", String.format(java.util.Locale.ROOT, "%.4f", stats.waiting.stddev()));
+        field(tail, "utilization", String.format(java.util.Locale.ROOT, "%.4f", stats.utilization()));
+        field(tail, "idle", stats.idleTime());
+        field(tail, "contextSwitches", stats.contextSwitches());
+        field(tail, "throughput", String.format(java.util.Locale.ROOT, "%.6f", stats.throughput()));
+
+        String line;
+        if (json) {
+            line = String.format(java.util.Locale.ROOT,
+                    "{\"file\":\"%s\",\"algorithm\":\"%s\",\"quantum\":%d,\"levels\":%d,\"cpus\":%d,\"processes\":%d,"
+                            + "\"blocks\":%d,\"makespan\":%d,\"avgWaiting\":%.4f,\"avgTurnaround\":%.4f,"
+                            + "\"avgResponse\":%.4f%s,\"millis\":%d}",
+                    jsonEscape(run.file.toString()), jsonEscape(run.algorithm), run.quantum, run.levelCount, run.cpus,
+                    processes.size(), blocks, makespan, wt, tat, rt, tail, millis);
+        } else {
+            line = String.format(java.util.Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%.4f,%.4f,%.4f%s,%d",
+                    csvEscape(run.file.toString()), csvEscape(run.algorithm), run.quantum, run.levelCount, run.cpus,
+                    processes.size(), blocks, makespan, wt, tat, rt, tail, millis);
+        }
+        writeLine(line);
+    }
+
+    // Appends ",value" for CSV or ,"name":value for JSON.
+    private void field(StringBuilder sb, String name, Object value) {
+        sb.append(',');
+        if (json) sb.append('"').append(name).append("\":");
+        sb.append(value);
+    }
+
+    private void writeLine(String line) throws IOException {
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static String csvEscape(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonEscape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    // Any format WorkloadIO reads, chosen by extension; plain text otherwise.
+    static Workload readWorkload(Path file) throws IOException {
+        return WorkloadIO.read(file);
+    }
+}
@@ -0,0 +1,62 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.List;
+
+// Read-only, time-ordered sequence of non-overlapping blocks. Because blocks
+// never overlap, both starts and ends ascend, so a time maps to an index by
+// binary search.
+public interface BlockSource {
+    int size();
+
+    int pid(int i);
+
+    int start(int i);
+
+    int end(int i);
+
+    default int endTime() {
+        return size() == 0 ? 0 : end(size() - 1);
+    }
+
+    // Index of the first block whose end is after time, or size() if none.
+    default int firstEndingAfter(int time) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (end(mid) <= time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // A reader for another thread to use alongside this one. Sources that
+    // cache what they decode hand out a separate reader over the same data;
+    // the rest can be shared once filled and return themselves.
+    default BlockSource concurrentView() {
+        return this;
+    }
+
+    static BlockSource of(List<GanttBlock> blocks) {
+        return new BlockSource() {
+            @Override
+            public int size() {
+                return blocks.size();
+            }
+
+            @Override
+            public int pid(int i) {
+                return blocks.get(i).pid;
+            }
+
+            @Override
+            public int start(int i) {
+                return blocks.get(i).start;
+            }
+
+            @Override
+            public int end(int i) {
+                return blocks.get(i).end;
+            }
+        };
+    }
+}
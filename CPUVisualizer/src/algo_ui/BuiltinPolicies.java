@@ -0,0 +1,146 @@
+package CPUVisualizer.src.algo_ui;
+
+// The algorithms that ship with the visualizer, as Simulation policies.
+// Policies registers ALL ahead of any found through ServiceLoader; the
+// SchedulerLogic run* methods use the factories directly. Each built-in also
+// names the MultiCoreScheduler engine that runs it on several CPUs, if any.
+final class BuiltinPolicies {
+    private interface Factory {
+        Simulation.Policy create(int quantum, int levels);
+    }
+
+    private static class Builtin implements PolicyProvider {
+        private final String name;
+        private final boolean quantum, levels;
+        private final int multiCore;
+        private final Factory factory;
+
+        Builtin(String name, boolean quantum, boolean levels, int multiCore, Factory factory) {
+            this.name = name;
+            this.quantum = quantum;
+            this.levels = levels;
+            this.multiCore = multiCore;
+            this.factory = factory;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Simulation.Policy create(int quantum, int levels) {
+            return factory.create(quantum, levels);
+        }
+
+        public boolean usesQuantum() {
+            return quantum;
+        }
+
+        public boolean usesLevels() {
+            return levels;
+        }
+    }
+
+    // No MultiCoreScheduler engine: one CPU only.
+    private static final int ONE_CPU = -1;
+
+    static final PolicyProvider[] ALL = {
+            new Builtin("FCFS", false, false, MultiCoreScheduler.FCFS, (q, l) -> fcfs()),
+            new Builtin("SJF", false, false, MultiCoreScheduler.SJF, (q, l) -> sjf()),
+            new Builtin("SRTF", false, false, MultiCoreScheduler.SRTF, (q, l) -> srtf()),
+            new Builtin("RR", true, false, MultiCoreScheduler.RR, (q, l) -> rr(q)),
+            new Builtin("MLFQ", true, true, MultiCoreScheduler.MLFQ, (q, l) -> mlfq(SchedulerLogic.mlfqQuantums(q, l))) {
+                // Keyed on the raw values: mlfqQuantums does not clamp the quantum.
+                @Override
+                public String config(int quantum, int levels) {
+                    return "MLFQ q=" + quantum + " l=" + levels;
+                }
+            },
+            new Builtin("CFS", true, true, ONE_CPU, (q, l) -> new FairPolicy(false, q, l)),
+            new Builtin("EEVDF", true, false, ONE_CPU, (q, l) -> new FairPolicy(true, q, l)),
+    };
+
+    private BuiltinPolicies() {
+    }
+
+    // The MultiCoreScheduler kind for provider, or -1 if it runs on one CPU
+    // only, as the fair policies and every ServiceLoader provider do.
+    static int multiCoreKind(PolicyProvider provider) {
+        return provider instanceof Builtin ? ((Builtin) provider).multiCore : ONE_CPU;
+    }
+
+    // Rows are admitted in arrival order, so the back of the queue is their
+    // arrival position.
+    static Simulation.Policy fcfs() {
+        return new Simulation.Policy() {
+            public void enqueue(Simulation sim, int row) {
+                sim.pushBack(row);
+            }
+
+            public int slice(Simulation sim, int row) {
+                return sim.w.remaining[row];
+            }
+        };
+    }
+
+    static Simulation.Policy sjf() {
+        return new Simulation.Policy() {
+            public void enqueue(Simulation sim, int row) {
+                sim.push(row, sim.w.burst[row], sim.nextSeq());
+            }
+
+            public int slice(Simulation sim, int row) {
+                return sim.w.remaining[row];
+            }
+        };
+    }
+
+    static Simulation.Policy srtf() {
+        return new Simulation.Policy() {
+            public void enqueue(Simulation sim, int row) {
+                if (sim.w.remaining[row] > 0) sim.push(row, sim.w.remaining[row], sim.nextSeq());
+            }
+
+            // Run until done or until the next arrival, which may preempt.
+            public int slice(Simulation sim, int row) {
+                return Math.min(sim.w.remaining[row], sim.untilArrival());
+            }
+
+            public boolean mergeSlices() {
+                return true;
+            }
+        };
+    }
+
+    static Simulation.Policy rr(int quantum) {
+        int q = Math.max(1, quantum);
+        return new Simulation.Policy() {
+            public void enqueue(Simulation sim, int row) {
+                if (sim.w.remaining[row] > 0) sim.pushBack(row);
+            }
+
+            public int slice(Simulation sim, int row) {
+                return Math.min(q, sim.w.remaining[row]);
+            }
+        };
+    }
+
+    static Simulation.Policy mlfq(int[] quantums) {
+        return new Simulation.Policy() {
+            public void enqueue(Simulation sim, int row) {
+                sim.pushBack(row);
+            }
+
+            public int slice(Simulation sim, int row) {
+                return Math.min(Math.max(1, quantums[sim.level[row]]), sim.w.remaining[row]);
+            }
+
+            public void afterSlice(Simulation sim, int row) {
+                sim.level[row] = Math.min(sim.level[row] + 1, quantums.length - 1);
+            }
+
+            public int levels() {
+                return quantums.length;
+            }
+        };
+    }
+}
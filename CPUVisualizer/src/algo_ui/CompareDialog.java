@@ -0,0 +1,229 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// All algorithms side by side on the current input table: one Gantt lane
+// each, a matrix of summary metrics, and a per-process table of one metric
+// for every algorithm with its difference from a chosen baseline.
+public class CompareDialog extends JDialog {
+    private static final String[] METRICS = {"Waiting", "Turnaround", "Response", "Completion"};
+
+    private final Workload base;
+    private final ResultCache cache;
+    private final JTextField quantumField;
+    private final JTextField levelsField;
+    private final JComboBox<String> metricSelector = new JComboBox<>(METRICS);
+    private final JComboBox<String> baselineSelector = new JComboBox<>(SchedulerLogic.ALGORITHMS);
+    private final GanttChartPanel chart = new GanttChartPanel();
+    private final JTable matrixTable = new JTable();
+    private final DeltaModel deltaModel = new DeltaModel();
+    private final JLabel status = new JLabel(" ");
+
+    public CompareDialog(Frame owner, Workload base, int quantum, int levels, ResultCache cache) {
+        super(owner, "Compare Algorithms", false);
+        this.base = base;
+        this.cache = cache;
+        this.quantumField = new JTextField(String.valueOf(quantum), 4);
+        this.levelsField = new JTextField(String.valueOf(levels), 4);
+
+        JButton runBtn = new JButton("Compare");
+        runBtn.addActionListener(e -> runComparison(runBtn));
+        metricSelector.addActionListener(e -> deltaModel.setMetric(metricSelector.getSelectedIndex()));
+        baselineSelector.addActionListener(e -> deltaModel.setBaseline(baselineSelector.getSelectedIndex()));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Quantum"));
+        controls.add(quantumField);
+        controls.add(new JLabel("MLFQ levels"));
+        controls.add(levelsField);
+        controls.add(runBtn);
+        controls.add(new JLabel("Per-process:"));
+        controls.add(metricSelector);
+        controls.add(new JLabel("vs"));
+        controls.add(baselineSelector);
+
+        JScrollPane chartScroll = new JScrollPane(chart);
+        chartScroll.setPreferredSize(new Dimension(900, 260));
+        JScrollPane matrixScroll = new JScrollPane(matrixTable);
+        matrixScroll.setBorder(BorderFactory.createTitledBorder("Metrics"));
+        matrixScroll.setPreferredSize(new Dimension(900, 130));
+        JTable deltaTable = new JTable(deltaModel);
+        deltaTable.setAutoCreateRowSorter(true);
+        JScrollPane deltaScroll = new JScrollPane(deltaTable);
+        deltaScroll.setBorder(BorderFactory.createTitledBorder("Per process (Δ = algorithm − baseline)"));
+        deltaScroll.setPreferredSize(new Dimension(900, 220));
+
+        JSplitPane tables = new JSplitPane(JSplitPane.VERTICAL_SPLIT, matrixScroll, deltaScroll);
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, chartScroll, tables);
+        split.setResizeWeight(0.5);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(controls, BorderLayout.NORTH);
+        content.add(split, BorderLayout.CENTER);
+        content.add(status, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(owner);
+
+        runComparison(runBtn);
+    }
+
+    private void runComparison(JButton runBtn) {
+        int quantum, levels;
+        try {
+            quantum = Integer.parseInt(quantumField.getText().trim());
+            levels = Integer.parseInt(levelsField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Quantum and levels must be whole numbers.");
+            return;
+        }
+
+        runBtn.setEnabled(false);
+        status.setText("Running " + SchedulerLogic.ALGORITHMS.length + " algorithms...");
+        long t0 = System.nanoTime();
+        new SwingWorker<List<AlgorithmComparison.Run>, Void>() {
+            @Override
+            protected List<AlgorithmComparison.Run> doInBackground() {
+                return AlgorithmComparison.run(base, quantum, levels, cache);
+            }
+
+            @Override
+            protected void done() {
+                runBtn.setEnabled(true);
+                try {
+                    List<AlgorithmComparison.Run> runs = get();
+                    showResults(runs);
+                    status.setText(timing(runs, System.nanoTime() - t0));
+                } catch (Exception ex) {
+                    status.setText("Comparison failed: " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showResults(List<AlgorithmComparison.Run> runs) {
+        BlockSource[] lanes = new BlockSource[runs.size()];
+        String[] labels = new String[runs.size()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = runs.get(i).timeline;
+            labels[i] = runs.get(i).algorithm;
+        }
+        chart.setLanes(lanes, labels);
+
+        DefaultTableModel model = new DefaultTableModel(new Object[]{
+                "Algorithm", "Avg Waiting", "Avg Turnaround", "Avg Response", "p99 Waiting",
+                "Makespan", "Switches", "CPU %", "Throughput"
+        }, 0);
+        for (AlgorithmComparison.Run r : runs) {
+            RunStatistics s = r.stats;
+            model.addRow(new Object[]{
+                    r.algorithm,
+                    String.format("%.2f", s.waiting.mean()),
+                    String.format("%.2f", s.turnaround.mean()),
+                    String.format("%.2f", s.response.mean()),
+                    s.waiting.percentile(0.99),
+                    s.makespan(),
+                    s.contextSwitches(),
+                    String.format("%.1f", s.utilization() * 100),
+                    String.format("%.4f", s.throughput())
+            });
+        }
+        matrixTable.setModel(model);
+        deltaModel.setRuns(runs);
+    }
+
+    private static String timing(List<AlgorithmComparison.Run> runs, long wall) {
+        long sum = 0, slowest = 0;
+        String slowestName = "-";
+        for (AlgorithmComparison.Run r : runs) {
+            sum += r.nanos;
+            if (r.nanos > slowest) {
+                slowest = r.nanos;
+                slowestName = r.algorithm;
+            }
+        }
+        return String.format("%d algorithms in %d ms (slowest %s %d ms, %d ms if run one after another)",
+                runs.size(), wall / 1_000_000, slowestName, slowest / 1_000_000, sum / 1_000_000);
+    }
+
+    // PID, Arrival, Burst, the metric for every algorithm, then each
+    // non-baseline algorithm's difference from the baseline. Reads the run
+    // columns in place; all runs share the base row order.
+    private static class DeltaModel extends AbstractTableModel {
+        private List<AlgorithmComparison.Run> runs = new ArrayList<>();
+        private int metric, baseline;
+
+        void setRuns(List<AlgorithmComparison.Run> runs) {
+            this.runs = runs;
+            baseline = Math.min(baseline, Math.max(0, runs.size() - 1));
+            fireTableStructureChanged();
+        }
+
+        void setMetric(int metric) {
+            this.metric = metric;
+            fireTableDataChanged();
+        }
+
+        void setBaseline(int baseline) {
+            this.baseline = baseline;
+            fireTableStructureChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return runs.isEmpty() ? 0 : runs.get(0).results.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return runs.isEmpty() ? 3 : 3 + runs.size() * 2 - 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            if (column < 3) return new String[]{"PID", "Arrival", "Burst"}[column];
+            column -= 3;
+            if (column < runs.size()) return runs.get(column).algorithm;
+            return runs.get(deltaRun(column - runs.size())).algorithm + " Δ";
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return Integer.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Workload w = runs.get(0).results;
+            switch (column) {
+                case 0: return w.id[row];
+                case 1: return w.arrival[row];
+                case 2: return w.burst[row];
+                default:
+            }
+            column -= 3;
+            if (column < runs.size()) return value(runs.get(column).results, row);
+            Workload other = runs.get(deltaRun(column - runs.size())).results;
+            return value(other, row) - value(runs.get(baseline).results, row);
+        }
+
+        // The k-th run other than the baseline.
+        private int deltaRun(int k) {
+            return k < baseline ? k : k + 1;
+        }
+
+        private int value(Workload w, int row) {
+            switch (metric) {
+                case 0: return w.waiting[row];
+                case 1: return w.turnaround[row];
+                case 2: return w.response[row];
+                default: return w.completion[row];
+            }
+        }
+    }
+}
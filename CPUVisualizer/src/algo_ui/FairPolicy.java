@@ -0,0 +1,189 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Linux-style fair scheduling for Simulation: CFS, or EEVDF with eligible
+// set to true. Every process gets a weight from its nice level (the kernel's
+// sched_prio_to_weight table) and a virtual runtime that grows by the time it
+// runs scaled by NICE_0 / weight, so heavier processes age more slowly and
+// get a larger share of the CPU.
+//
+// CFS runs the process with the least virtual runtime for its share of the
+// target latency (quantum × levels, quantum being the minimum granularity).
+// An arrival only takes the CPU over if the running process is more than one
+// granularity ahead of it.
+//
+// EEVDF gives every process a virtual deadline one base slice (the quantum)
+// past its virtual runtime, and runs the earliest deadline among the
+// eligible processes, those whose virtual runtime is not past the weighted
+// average. New processes start at that average.
+//
+// The run queue is a FairTree, so each decision is O(log n) however many
+// processes are runnable. Being outside the Simulation, it is not captured
+// by checkpoints.
+final class FairPolicy implements Simulation.Policy {
+    private static final int[] WEIGHTS = {
+            /* -20 */ 88761, 71755, 56483, 46273, 36291,
+            /* -15 */ 29154, 23254, 18705, 14949, 11916,
+            /* -10 */ 9548, 7620, 6100, 4904, 3906,
+            /*  -5 */ 3121, 2501, 1991, 1586, 1277,
+            /*   0 */ 1024, 820, 655, 526, 423,
+            /*   5 */ 335, 272, 215, 172, 137,
+            /*  10 */ 110, 87, 70, 56, 45,
+            /*  15 */ 36, 29, 23, 18, 15,
+    };
+    private static final int NICE_0 = 1024;
+    // Virtual times carry this many fractional bits, so light processes don't
+    // round to zero progress.
+    private static final int SHIFT = 10;
+
+    private final boolean eligible;
+    private final int granularity, latency, perLatency;
+    private final FairTree tree = new FairTree(16);
+    private final LongPredicate isEligible = this::isEligible;
+
+    private long[] vruntime = new long[16], deadline = new long[16];
+    private int[] weight = new int[16];
+    private long seq;
+    // Monotonic floor of every runnable process's virtual runtime; the sums
+    // below are kept relative to it. load is the total weight of the runnable
+    // processes, running one included, and lag their Σ weight × (v - floor).
+    private long floor, load, lag;
+    // CFS: the process whose slice an arrival cut short, and what was left.
+    private int cut = -1, cutLeft;
+
+    FairPolicy(boolean eligible, int quantum, int levels) {
+        this.eligible = eligible;
+        this.granularity = Math.max(1, quantum);
+        this.perLatency = Math.max(1, levels);
+        this.latency = granularity * perLatency;
+    }
+
+    static int weight(int nice) {
+        return WEIGHTS[Math.max(-20, Math.min(19, nice)) + 20];
+    }
+
+    // Virtual time for exec units of real time at weight w.
+    private static long virtual(long exec, int w) {
+        return (exec * NICE_0 << SHIFT) / w;
+    }
+
+    public void enqueue(Simulation sim, int row) {
+        if (sim.w.remaining[row] <= 0) return;
+        if (sim.w.start[row] == -1) place(sim, row);
+        tree.insert(row, eligible ? deadline[row] : vruntime[row], seq++, vruntime[row]);
+        sim.queued(row);
+    }
+
+    // A newly arrived process: CFS starts it at the floor, EEVDF at the
+    // weighted average with a fresh deadline.
+    private void place(Simulation sim, int row) {
+        if (row >= weight.length) {
+            int capacity = Math.max(row + 1, weight.length * 2);
+            vruntime = Arrays.copyOf(vruntime, capacity);
+            deadline = Arrays.copyOf(deadline, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        int w = weight(sim.w.nice[row]);
+        long v = floor;
+        if (eligible && load > 0) v = floor + lag / load;
+        weight[row] = w;
+        vruntime[row] = v;
+        deadline[row] = v + virtual(granularity, w);
+        load += w;
+        lag += w * (v - floor);
+    }
+
+    public int pick(Simulation sim) {
+        advanceFloor(tree.minVruntime());
+        int row;
+        if (eligible) {
+            row = tree.firstEligible(isEligible);
+            if (row < 0) row = tree.first();
+        } else {
+            row = tree.first();
+            // Wakeup preemption: the process an arrival interrupted, queued
+            // again since, keeps the CPU unless it is more than a granularity
+            // ahead of the newcomer.
+            if (cut >= 0 && cut != row && vruntime[cut] - vruntime[row] <= virtual(granularity, weight[row])) {
+                row = cut;
+            }
+        }
+        tree.remove(row);
+        sim.dequeued(row);
+        return row;
+    }
+
+    // Whether a process at virtual runtime v has received no more than its
+    // share: v at most the load-weighted average of the runnable processes.
+    private boolean isEligible(long v) {
+        long d = v - floor;
+        try {
+            return Math.multiplyExact(d, load) <= lag;
+        } catch (ArithmeticException e) {
+            return (double) d * load <= lag;
+        }
+    }
+
+    public int slice(Simulation sim, int row) {
+        int w = weight[row];
+        long want;
+        if (eligible) {
+            // Up to the deadline, at least one unit.
+            long left = deadline[row] - vruntime[row];
+            want = Math.max(1, (left * w + ((long) NICE_0 << SHIFT) - 1) / ((long) NICE_0 << SHIFT));
+        } else if (row == cut && cutLeft > 0) {
+            want = cutLeft;
+        } else {
+            // Share of the period by weight; the period stretches once more
+            // processes are runnable than fit in the target latency.
+            int running = tree.size() + 1;
+            long period = running > perLatency ? (long) running * granularity : latency;
+            want = Math.max(granularity, period * w / load);
+        }
+        int remaining = sim.w.remaining[row];
+        int exec = (int) Math.min(Math.min(want, remaining), sim.untilArrival());
+        exec = Math.max(exec, 1);
+
+        if (!eligible) {
+            if (exec < want && exec < remaining) {
+                cut = row;
+                cutLeft = (int) (want - exec);
+            } else {
+                cut = -1;
+            }
+        }
+
+        long dv = virtual(exec, w);
+        vruntime[row] += dv;
+        lag += w * dv;
+        if (eligible && vruntime[row] >= deadline[row]) {
+            deadline[row] = vruntime[row] + virtual(granularity, w);
+        }
+        long min = tree.isEmpty() ? Long.MAX_VALUE : tree.minVruntime();
+        if (exec == remaining) {
+            load -= w;
+            lag -= w * (vruntime[row] - floor);
+            if (cut == row) cut = -1;
+        } else {
+            min = Math.min(min, vruntime[row]);
+        }
+        if (min != Long.MAX_VALUE) advanceFloor(min);
+        return exec;
+    }
+
+    private void advanceFloor(long min) {
+        if (min <= floor) return;
+        lag -= load * (min - floor);
+        floor = min;
+    }
+
+    public boolean mergeSlices() {
+        return true;
+    }
+
+    public boolean resumable() {
+        return false;
+    }
+}
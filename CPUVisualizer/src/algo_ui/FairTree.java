@@ -0,0 +1,180 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Run queue for FairPolicy: an AVL tree of rows ordered by (key, tie), where
+// CFS keys rows by vruntime and EEVDF by virtual deadline. Every node also
+// holds its row's vruntime and the smallest vruntime in its subtree, so
+// EEVDF can find the earliest deadline among the eligible rows with one walk
+// down. Nodes are row numbers indexing parallel arrays, like IndexHeap, so
+// nothing is allocated per operation; every operation is O(log n).
+final class FairTree {
+    private static final int NIL = -1;
+
+    private int[] left, right;
+    private byte[] height;
+    private long[] key, tie, vruntime, minVruntime;
+    private int root = NIL, size;
+
+    FairTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new byte[capacity];
+        key = new long[capacity];
+        tie = new long[capacity];
+        vruntime = new long[capacity];
+        minVruntime = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Smallest vruntime of any queued row; only while not empty.
+    long minVruntime() {
+        return minVruntime[root];
+    }
+
+    // Row with the smallest key; only while not empty.
+    int first() {
+        int node = root;
+        while (left[node] != NIL) node = left[node];
+        return node;
+    }
+
+    // Row with the smallest key among those whose vruntime passes eligible,
+    // or -1 if none does. eligible must hold for every vruntime up to some
+    // bound and for none above it, as "at most the average" does.
+    int firstEligible(LongPredicate eligible) {
+        int node = root;
+        while (node != NIL) {
+            int l = left[node];
+            if (l != NIL && eligible.test(minVruntime[l])) {
+                node = l;
+            } else if (eligible.test(vruntime[node])) {
+                return node;
+            } else {
+                node = right[node];
+            }
+        }
+        return NIL;
+    }
+
+    // row must not be queued already; its fields stay fixed until it is removed.
+    void insert(int row, long key, long tie, long vruntime) {
+        if (row >= left.length) grow(Math.max(row + 1, left.length * 2));
+        this.key[row] = key;
+        this.tie[row] = tie;
+        this.vruntime[row] = vruntime;
+        left[row] = right[row] = NIL;
+        height[row] = 1;
+        minVruntime[row] = vruntime;
+        root = insert(root, row);
+        size++;
+    }
+
+    // row must be queued.
+    void remove(int row) {
+        root = remove(root, row);
+        size--;
+    }
+
+    void clear() {
+        root = NIL;
+        size = 0;
+    }
+
+    private void grow(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        height = Arrays.copyOf(height, capacity);
+        key = Arrays.copyOf(key, capacity);
+        tie = Arrays.copyOf(tie, capacity);
+        vruntime = Arrays.copyOf(vruntime, capacity);
+        minVruntime = Arrays.copyOf(minVruntime, capacity);
+    }
+
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && tie[a] < tie[b]);
+    }
+
+    private int insert(int node, int row) {
+        if (node == NIL) return row;
+        if (less(row, node)) left[node] = insert(left[node], row);
+        else right[node] = insert(right[node], row);
+        return balance(node);
+    }
+
+    private int remove(int node, int row) {
+        if (node == NIL) throw new IllegalStateException("Row " + row + " is not queued");
+        if (node == row) {
+            if (left[node] == NIL) return right[node];
+            if (right[node] == NIL) return left[node];
+            int next = right[node];
+            while (left[next] != NIL) next = left[next];
+            right[next] = removeFirst(right[node]);
+            left[next] = left[node];
+            return balance(next);
+        }
+        if (less(row, node)) left[node] = remove(left[node], row);
+        else right[node] = remove(right[node], row);
+        return balance(node);
+    }
+
+    private int removeFirst(int node) {
+        if (left[node] == NIL) return right[node];
+        left[node] = removeFirst(left[node]);
+        return balance(node);
+    }
+
+    private int height(int node) {
+        return node == NIL ? 0 : height[node];
+    }
+
+    private void update(int node) {
+        int l = left[node], r = right[node];
+        height[node] = (byte) (Math.max(height(l), height(r)) + 1);
+        long min = vruntime[node];
+        if (l != NIL) min = Math.min(min, minVruntime[l]);
+        if (r != NIL) min = Math.min(min, minVruntime[r]);
+        minVruntime[node] = min;
+    }
+
+    private int balance(int node) {
+        update(node);
+        int skew = height(left[node]) - height(right[node]);
+        if (skew > 1) {
+            if (height(left[left[node]]) < height(right[left[node]])) left[node] = rotateLeft(left[node]);
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(right[right[node]]) < height(left[right[node]])) right[node] = rotateRight(right[node]);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int l = left[node];
+        left[node] = right[l];
+        right[l] = node;
+        update(node);
+        update(l);
+        return l;
+    }
+
+    private int rotateLeft(int node) {
+        int r = right[node];
+        right[node] = left[r];
+        left[r] = node;
+        update(node);
+        update(r);
+        return r;
+    }
+}
@@ -1,115 +1,489 @@
 package CPUVisualizer.src.algo_ui;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
 
 public class GanttChartPanel extends JPanel {
-    public enum Style { FCFS, SJF, SRTF, RR, MLFQ }
-
-    private List<GanttBlock> blocks = new ArrayList<>();
+    private BlockSource blocks = new Timeline();
+    private Timeline stream;
+    // Bounded chart fed by a live run; the oldest blocks drop off as new ones come in.
+    private RingTimeline live;
+    // Time at the left margin: 0, or in live mode the start of the oldest block kept.
+    private int origin;
+    // One lane per CPU for multi-core runs; null when the chart has a single lane.
+    // `blocks` is then the lanes merged in end-time order, which drives replay.
+    private BlockSource[] lanes;
+    // Captions for the lanes; null means "CPU n".
+    private String[] laneLabels;
+    private int blockHeight = BLOCK_HEIGHT;
+    private int laneGap;
     private int animationDelay = 200;
-    private Style currentStyle = Style.FCFS;
 
     private static final int BLOCK_WIDTH = 40;
     private static final int BLOCK_HEIGHT = 40;
-    private static final int MARGIN = 20;
+    private static final int MARGIN = GanttRenderer.MARGIN;
+    private static final double MAX_SCALE = 400;
+    private static final long MAX_WIDTH = GanttRenderer.MAX_WIDTH;
+
+    // Pixels per time unit; BLOCK_WIDTH until the user zooms.
+    private double scale = BLOCK_WIDTH;
+    private int totalTime = 1;
+    private final Map<BlockSource, TimelineSummary> summaries = new IdentityHashMap<>();
 
-    private Map<Integer, Color> processColors = new HashMap<>();
+    // Replay cursor: only the first `revealed` blocks are painted. Driven by a
+    // Swing Timer, so the cursor and the blocks are only ever touched on the EDT.
+    private int revealed;
+    private double speed = 1;
+    private double pendingBlocks;
+    private long lastTick;
+    private final javax.swing.Timer replayTimer = new javax.swing.Timer(16, e -> advanceReplay());
+
+    // The chart as painted, in TILE_WIDTH columns; see GanttTiles.
+    private final GanttTiles tiles = new GanttTiles();
 
     public GanttChartPanel() {
         setPreferredSize(new Dimension(800, 100));
         setBackground(Color.WHITE);
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                zoom(e.getWheelRotation() < 0 ? 2 : 0.5, e.getX());
+            } else if (getParent() != null) {
+                // Plain wheel keeps scrolling the enclosing scroll pane.
+                getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+            }
+        });
     }
 
     public void setBlocksInstant(List<GanttBlock> newBlocks) {
-        this.blocks = new ArrayList<>(newBlocks);
+        show(Timeline.of(newBlocks), null, true);
+    }
+
+    // Shows a packed timeline directly, without copying.
+    public void setTimeline(Timeline timeline) {
+        show(timeline, null, true);
+    }
+
+    // Same as setBlocksInstant, but the blocks are revealed one by one at the animation speed.
+    public void animateBlocks(List<GanttBlock> newBlocks) {
+        show(Timeline.of(newBlocks), null, false);
+        play();
+    }
+
+    // One lane per CPU, e.g. MultiCoreScheduler.Result.lanes. Replay reveals
+    // the lanes together in time order.
+    public void setLanes(BlockSource[] cpuLanes) {
+        if (cpuLanes.length == 1) {
+            show(cpuLanes[0], null, true);
+        } else {
+            show(new MergedLanes(cpuLanes), cpuLanes.clone(), true);
+        }
+    }
+
+    // Stacked lanes captioned with labels instead of CPU numbers, e.g. one
+    // lane per algorithm run on the same workload.
+    public void setLanes(BlockSource[] lanes, String[] labels) {
+        show(new MergedLanes(lanes), lanes.clone(), true);
+        laneLabels = labels.clone();
+    }
+
+    // Starts an empty chart that appendBlocks grows while a simulation is still running.
+    public void beginStream() {
+        stream = new Timeline();
+        show(stream, null, true);
+    }
+
+    // Adds finished blocks to the stream started by beginStream; adjacent slices of
+    // the same pid are merged. Only the strip that changed is repainted.
+    public void appendBlocks(List<GanttBlock> batch) {
+        if (stream == null || blocks != stream || batch.isEmpty()) return;
+        int from = stream.isEmpty() ? 0 : stream.start(stream.size() - 1);
+        for (GanttBlock b : batch) {
+            stream.append(b.pid, b.start, b.end);
+        }
+        revealed = stream.size();
         updatePreferredSize();
+        int x0 = xOf(from);
+        int x1 = xOf(stream.endTime()) + labelWidth() + 1;
+        repaint(x0, 0, x1 - x0, getHeight());
+        fireReplayChanged();
+    }
+
+    // Starts a live chart holding the last capacity blocks. appendLive adds
+    // to it; older blocks are dropped and the chart slides along with them.
+    public void beginLive(int capacity) {
+        live = new RingTimeline(capacity);
+        show(live, null, true);
+    }
+
+    // Adds a live run's newest blocks, merging adjacent slices of a pid. If
+    // the view was at the newest block it scrolls along; otherwise the times
+    // in view stay put while older blocks are dropped off the left.
+    public void appendLive(BlockSource batch) {
+        if (live == null || blocks != live || batch.size() == 0) return;
+        JViewport viewport = viewport();
+        boolean following = viewport == null
+                || viewport.getViewRect().x + viewport.getViewRect().width >= getWidth() - BLOCK_WIDTH;
+        int oldOrigin = origin;
+        for (int i = 0; i < batch.size(); i++) {
+            live.append(batch.pid(i), batch.start(i), batch.end(i));
+        }
+        origin = live.start(0);
+        revealed = live.size();
+        updatePreferredSize();
+        if (viewport != null) {
+            setSize(getPreferredSize());
+            Point p = viewport.getViewPosition();
+            int maxX = Math.max(0, getWidth() - viewport.getExtentSize().width);
+            int x = following ? maxX : p.x - (int) Math.round((origin - oldOrigin) * scale);
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(maxX, x)), p.y));
+        }
         repaint();
+        fireReplayChanged();
     }
 
-    public void animateBlocks(List<GanttBlock> newBlocks) {
-        this.blocks.clear();
-        updatePreferredSize(newBlocks);
-        new Thread(() -> {
-            for (GanttBlock block : newBlocks) {
-                blocks.add(block);
-                repaint();
-                try {
-                    Thread.sleep(animationDelay);
-                } catch (InterruptedException ignored) {}
-            }
-        }).start();
+    private void show(BlockSource source, BlockSource[] cpuLanes, boolean complete) {
+        replayTimer.stop();
+        if (source != stream) stream = null;
+        if (source != live) live = null;
+        this.blocks = source;
+        this.origin = 0;
+        this.lanes = cpuLanes;
+        this.laneLabels = null;
+        summaries.clear();
+        tiles.clear();
+        layoutLanes();
+        revealed = complete ? source.size() : 0;
+        scale = BLOCK_WIDTH;
+        updatePreferredSize();
+        repaint();
+        fireReplayChanged();
     }
 
     public void setAnimationDelay(int ms) {
-        this.animationDelay = ms;
+        this.animationDelay = Math.max(1, ms);
     }
 
-    public void setStyle(Style style) {
-        this.currentStyle = style;
+    // Multiplies the animation rate (1 = one block per animation delay).
+    public void setSpeed(double speed) {
+        this.speed = Math.max(0.01, speed);
+    }
+
+    public void play() {
+        if (revealed >= blocks.size()) revealed = 0;
+        pendingBlocks = 1;
+        lastTick = System.nanoTime();
+        replayTimer.start();
+        fireReplayChanged();
+    }
+
+    public void pause() {
+        replayTimer.stop();
+        fireReplayChanged();
+    }
+
+    public boolean isPlaying() {
+        return replayTimer.isRunning();
+    }
+
+    public int getRevealedCount() {
+        return revealed;
+    }
+
+    public int getBlockCount() {
+        return blocks.size();
+    }
+
+    public int getEndTime() {
+        return blocks.endTime();
+    }
+
+    // Time up to which the chart is currently drawn.
+    public int getReplayTime() {
+        return revealed == 0 ? 0 : blocks.end(revealed - 1);
+    }
+
+    // Moves the replay cursor so every block that starts before time is shown.
+    public void seekToTime(int time) {
+        int index = blocks.firstEndingAfter(time);
+        if (index < blocks.size() && blocks.start(index) < time) index++;
+        seekToBlock(index);
+    }
+
+    public void seekToBlock(int index) {
+        index = Math.max(0, Math.min(blocks.size(), index));
+        if (index == revealed) return;
+        revealed = index;
+        repaint();
+        fireReplayChanged();
+    }
+
+    public void addReplayListener(ChangeListener listener) {
+        listenerList.add(ChangeListener.class, listener);
+    }
+
+    private void fireReplayChanged() {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener l : listenerList.getListeners(ChangeListener.class)) {
+            l.stateChanged(event);
+        }
+    }
+
+    // Reveals as many blocks as the elapsed time allows and repaints just the
+    // strip they cover, plus room for their time labels.
+    private void advanceReplay() {
+        long now = System.nanoTime();
+        pendingBlocks += (now - lastTick) / 1e6 / animationDelay * speed;
+        lastTick = now;
+        int step = (int) pendingBlocks;
+        if (step == 0) return;
+        pendingBlocks -= step;
+
+        int from = revealed;
+        revealed = Math.min(blocks.size(), revealed + step);
+        if (revealed > from) {
+            int x0 = xOf(blocks.start(from)) - 1;
+            int x1 = xOf(blocks.end(revealed - 1)) + labelWidth() + 1;
+            repaint(x0, 0, x1 - x0, getHeight());
+            scrollRectToVisible(new Rectangle(x0, 0, Math.min(x1 - x0, 200), getHeight()));
+        }
+        if (revealed >= blocks.size()) replayTimer.stop();
+        fireReplayChanged();
+    }
+
+    private int labelWidth() {
+        return getFontMetrics(GanttRenderer.FONT).stringWidth(String.valueOf(blocks.endTime())) + 8;
+    }
+
+    public void zoomIn() {
+        zoom(2, visibleCenterX());
+    }
+
+    public void zoomOut() {
+        zoom(0.5, visibleCenterX());
+    }
+
+    public void zoomToFit() {
+        JViewport viewport = viewport();
+        int width = viewport != null ? viewport.getExtentSize().width : getWidth();
+        setScale(Math.max(1, width - 2 * MARGIN) / (double) totalTime, 0);
+    }
+
+    public void zoomReset() {
+        setScale(BLOCK_WIDTH, visibleCenterX());
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    private void zoom(double factor, int anchorX) {
+        setScale(scale * factor, anchorX);
+    }
+
+    // Changes the zoom while keeping the time under anchorX at the same spot in the viewport.
+    private void setScale(double newScale, int anchorX) {
+        newScale = Math.max(minScale(), Math.min(maxScale(), newScale));
+        if (newScale == scale) return;
+        JViewport viewport = viewport();
+        double anchorTime = (anchorX - MARGIN) / scale;
+        int offset = viewport == null ? 0 : anchorX - viewport.getViewPosition().x;
+        scale = newScale;
+        updatePreferredSize(totalTime);
+        if (viewport != null) {
+            setSize(getPreferredSize());
+            int x = (int) Math.round(MARGIN + anchorTime * scale) - offset;
+            int maxX = Math.max(0, getWidth() - viewport.getExtentSize().width);
+            viewport.setViewPosition(new Point(Math.max(0, Math.min(maxX, x)), viewport.getViewPosition().y));
+        }
+        repaint();
+    }
+
+    // Zooming out stops once the whole timeline fits in 200 pixels.
+    private double minScale() {
+        return Math.min(BLOCK_WIDTH, 200.0 / totalTime);
+    }
+
+    private double maxScale() {
+        return Math.max(minScale(), Math.min(MAX_SCALE, (MAX_WIDTH - 2 * MARGIN) / (double) totalTime));
+    }
+
+    private JViewport viewport() {
+        return (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+    }
+
+    private int visibleCenterX() {
+        Rectangle visible = getVisibleRect();
+        return visible.x + visible.width / 2;
     }
 
     private void updatePreferredSize() {
-        int totalTime = blocks.isEmpty() ? 1 : blocks.get(blocks.size() - 1).end;
-        int width = MARGIN * 2 + totalTime * BLOCK_WIDTH;
-        setPreferredSize(new Dimension(Math.max(800, width), 100));
-        revalidate();
+        updatePreferredSize(blocks.size() == 0 ? 1 : blocks.endTime() - origin);
     }
 
-    private void updatePreferredSize(List<GanttBlock> newBlocks) {
-        int totalTime = newBlocks.isEmpty() ? 1 : newBlocks.get(newBlocks.size() - 1).end;
-        int width = MARGIN * 2 + totalTime * BLOCK_WIDTH;
-        setPreferredSize(new Dimension(Math.max(800, width), 100));
+    private void updatePreferredSize(int endTime) {
+        totalTime = Math.max(1, endTime);
+        scale = Math.max(minScale(), Math.min(maxScale(), scale));
+        long width = MARGIN * 2 + (long) Math.ceil(totalTime * scale);
+        int height = Math.max(100, laneTop(laneCount() - 1) + blockHeight + 30);
+        setPreferredSize(new Dimension((int) Math.max(800, Math.min(width, MAX_WIDTH)), height));
         revalidate();
     }
 
-    private Color getColorForProcess(int pid) {
-        if (!processColors.containsKey(pid)) {
-            Random rand = new Random(pid * 1000);
-            Color color = new Color(100 + rand.nextInt(156), 100 + rand.nextInt(156), 100 + rand.nextInt(156));
-            processColors.put(pid, color);
+    // A single lane keeps the classic 40px row; many CPUs get thinner rows, with
+    // a "CPU n" caption above each one while there is room for it.
+    private void layoutLanes() {
+        int count = laneCount();
+        blockHeight = count == 1 ? BLOCK_HEIGHT : Math.max(8, Math.min(32, 480 / count));
+        laneGap = count == 1 ? 0 : blockHeight >= 16 ? 16 : 3;
+    }
+
+    private int laneCount() {
+        return lanes == null ? 1 : lanes.length;
+    }
+
+    private int laneTop(int lane) {
+        return MARGIN + laneGap + lane * (blockHeight + laneGap);
+    }
+
+    private int xOf(long time) {
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(MAX_WIDTH, MARGIN + Math.round((time - origin) * scale)));
+    }
+
+    private TimelineSummary summary(BlockSource source) {
+        TimelineSummary summary = summaries.get(source);
+        // A live ring keeps its size once full, so a moved first block also means stale.
+        if (summary == null || summary.blocks != source.size()
+                || (source.size() > 0 && summary.origin != source.start(0))) {
+            // A saved trace carries its own, so opening one never scans every block.
+            summary = TraceFile.summaryOf(source);
+            if (summary == null) summary = new TimelineSummary(source);
+            summaries.put(source, summary);
         }
-        return processColors.get(pid);
+        return summary;
+    }
+
+    // Snapshot of what is shown, for painting tiles.
+    private GanttRenderer renderer() {
+        return renderer(blocks, getWidth(), getHeight());
+    }
+
+    private GanttRenderer renderer(BlockSource source, int width, int height) {
+        TimelineSummary summary = null;
+        TimelineSummary[] laneSummaries = null;
+        if (scale < 1) {
+            if (lanes == null) {
+                summary = source == blocks ? summary(source) : new TimelineSummary(source);
+            } else {
+                laneSummaries = new TimelineSummary[lanes.length];
+                for (int l = 0; l < lanes.length; l++) laneSummaries[l] = summary(lanes[l]);
+            }
+        }
+        return new GanttRenderer(source, lanes, laneLabels, revealed, scale, origin, blockHeight, laneGap,
+                width, height, summary, laneSummaries);
+    }
+
+    // The whole chart as shown now (zoom, lanes, replay position) for
+    // GanttExport, which may write it from another thread; a stream or live
+    // chart is copied first, since it keeps growing here.
+    GanttRenderer exportSnapshot() {
+        BlockSource source = blocks;
+        if (source == stream || source == live) {
+            Timeline copy = new Timeline(Math.max(1, source.size()));
+            for (int i = 0; i < source.size(); i++) copy.add(source.pid(i), source.start(i), source.end(i));
+            source = copy;
+        }
+        Dimension size = getPreferredSize();
+        return renderer(source, size.width, size.height);
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (blocks == null || blocks.isEmpty()) return;
+        if (!Instrumentation.isEnabled()) {
+            paintChart((Graphics2D) g);
+            return;
+        }
+        long t0 = System.nanoTime();
+        int drawn = paintChart((Graphics2D) g);
+        Instrumentation.paint(System.nanoTime() - t0, drawn, laneCount());
+    }
+
+    // Copies the chart from tiles; returns the blocks and summary columns
+    // filled by tiles painted for it, for Instrumentation.
+    private int paintChart(Graphics2D g2) {
+        if (Math.min(revealed, blocks.size()) == 0) return 0;
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        GanttRenderer renderer = renderer();
+        // A stream or live chart grows on this thread, so its tiles are painted here too.
+        int drawn = tiles.paint(g2, clip, renderer, getBackground(), blocks != stream && blocks != live);
+        // Lane captions stay at the left of the view, so they go over the tiles.
+        GanttTiles.prepare(g2);
+        renderer.paintCaptions(GanttRenderer.of(g2), getVisibleRect().x + 4, clip);
+        return drawn;
+    }
+
+    // k-way merge of per-CPU lanes by end time, so replay can treat a
+    // multi-core run like one timeline. Costs two ints per block.
+    private static class MergedLanes implements BlockSource {
+        private final BlockSource[] lanes;
+        private final int[] lane, index;
+
+        MergedLanes(BlockSource[] lanes) {
+            this.lanes = lanes;
+            int total = 0;
+            for (BlockSource l : lanes) total += l.size();
+            lane = new int[total];
+            index = new int[total];
+            int[] cursor = new int[lanes.length];
+            IndexHeap heads = new IndexHeap(lanes.length);
+            for (int l = 0; l < lanes.length; l++) {
+                if (lanes[l].size() > 0) heads.push(l, lanes[l].end(0), l);
+            }
+            for (int i = 0; i < total; i++) {
+                int l = heads.pop();
+                lane[i] = l;
+                index[i] = cursor[l]++;
+                if (cursor[l] < lanes[l].size()) heads.push(l, lanes[l].end(cursor[l]), l);
+            }
+        }
 
-        Graphics2D g2 = (Graphics2D) g;
-        g2.setFont(new Font("Arial", Font.BOLD, 12));
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        private MergedLanes(BlockSource[] lanes, int[] lane, int[] index) {
+            this.lanes = lanes;
+            this.lane = lane;
+            this.index = index;
+        }
 
-        for (GanttBlock block : blocks) {
-            int x = MARGIN + block.start * BLOCK_WIDTH;
-            int width = (block.end - block.start) * BLOCK_WIDTH;
+        @Override
+        public BlockSource concurrentView() {
+            BlockSource[] views = new BlockSource[lanes.length];
+            for (int l = 0; l < lanes.length; l++) views[l] = lanes[l].concurrentView();
+            return new MergedLanes(views, lane, index);
+        }
 
-            Color color = getColorForProcess(block.pid);
-            g2.setColor(color);
-            g2.fillRect(x, MARGIN, width, BLOCK_HEIGHT);
+        @Override
+        public int size() {
+            return lane.length;
+        }
 
-            g2.setColor(Color.BLACK);
-            g2.drawRect(x, MARGIN, width, BLOCK_HEIGHT);
+        @Override
+        public int pid(int i) {
+            return lanes[lane[i]].pid(index[i]);
+        }
 
-            // Center PID text
-            String text = "P" + block.pid;
-            FontMetrics fm = g2.getFontMetrics();
-            int textWidth = fm.stringWidth(text);
-            int textHeight = fm.getAscent();
-            g2.drawString(text, x + (width - textWidth) / 2, MARGIN + (BLOCK_HEIGHT + textHeight) / 2);
+        @Override
+        public int start(int i) {
+            return lanes[lane[i]].start(index[i]);
         }
 
-        // Time markers
-        g2.setColor(Color.BLACK);
-        for (GanttBlock block : blocks) {
-            int xStart = MARGIN + block.start * BLOCK_WIDTH;
-            int xEnd = MARGIN + block.end * BLOCK_WIDTH;
-            g2.drawString("" + block.start, xStart, MARGIN + BLOCK_HEIGHT + 15);
-            g2.drawString("" + block.end, xEnd, MARGIN + BLOCK_HEIGHT + 15);
+        @Override
+        public int end(int i) {
+            return lanes[lane[i]].end(index[i]);
         }
     }
 }
-
@@ -0,0 +1,230 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Writes a whole Gantt chart, however long, to a PNG or SVG file. The chart
+// is painted one tile of GanttTiles.TILE_WIDTH columns at a time and each
+// tile is written out before the next is painted, so memory stays at a tile
+// rather than the full picture. PNG stores whole rows, so a very wide chart
+// is painted in bands of rows, each band a row of tiles; SVG gets one clipped
+// group per tile.
+final class GanttExport {
+    // Pixel rows kept for a PNG band, at most.
+    private static final long BAND_BYTES = 32L << 20;
+    private static final int IDAT_CHUNK = 1 << 16;
+
+    private GanttExport() {
+    }
+
+    // SVG for a .svg file, PNG otherwise. Safe off the event thread.
+    static void write(GanttRenderer renderer, Path file) throws IOException {
+        GanttRenderer reader = renderer.reader();
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svg")) {
+            writeSvg(reader, file);
+        } else {
+            writePng(reader, file);
+        }
+    }
+
+    static void writePng(GanttRenderer r, Path file) throws IOException {
+        int width = r.width, height = Math.max(1, r.height);
+        int rowBytes = 1 + 3 * width;
+        int band = (int) Math.max(1, Math.min(height, BAND_BYTES / rowBytes));
+        BufferedImage tile = new BufferedImage(GanttTiles.TILE_WIDTH, band, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+        byte[] rows = new byte[band * rowBytes];
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream h = new DataOutputStream(header);
+            h.writeInt(width);
+            h.writeInt(height);
+            h.write(new byte[]{8, 2, 0, 0, 0}); // 8-bit RGB, no interlace
+            chunk(out, "IHDR", header.toByteArray(), header.size());
+
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream idat = new DeflaterOutputStream(new IdatStream(out), deflater, IDAT_CHUNK)) {
+                for (int y = 0; y < height; y += band) {
+                    int rowsHere = Math.min(band, height - y);
+                    for (int x = 0; x < width; x += GanttTiles.TILE_WIDTH) {
+                        paintTile(r, tile, x, y, rowsHere);
+                        int columns = Math.min(GanttTiles.TILE_WIDTH, width - x);
+                        for (int row = 0; row < rowsHere; row++) {
+                            int at = row * rowBytes + 1 + 3 * x;
+                            for (int c = 0, p = row * GanttTiles.TILE_WIDTH; c < columns; c++, p++) {
+                                int rgb = pixels[p];
+                                rows[at++] = (byte) (rgb >> 16);
+                                rows[at++] = (byte) (rgb >> 8);
+                                rows[at++] = (byte) rgb;
+                            }
+                        }
+                    }
+                    // Each row starts with its filter type, 0 (none), left as is.
+                    idat.write(rows, 0, rowsHere * rowBytes);
+                }
+            } finally {
+                deflater.end();
+            }
+            chunk(out, "IEND", new byte[0], 0);
+        }
+    }
+
+    private static void paintTile(GanttRenderer r, BufferedImage tile, int x, int y, int rows) {
+        Graphics2D g = tile.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, tile.getWidth(), tile.getHeight());
+            g.translate(-x, -y);
+            Rectangle clip = new Rectangle(x, y, GanttTiles.TILE_WIDTH, rows);
+            g.clip(clip);
+            GanttTiles.prepare(g);
+            GanttRenderer.Canvas canvas = GanttRenderer.of(g);
+            r.paint(canvas, g.getFontMetrics(), clip);
+            if (x == 0) r.paintCaptions(canvas, 4, clip);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void chunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        DataOutputStream d = new DataOutputStream(out);
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data, 0, length);
+        d.writeInt(length);
+        d.write(name);
+        d.write(data, 0, length);
+        d.writeInt((int) crc.getValue());
+    }
+
+    // Cuts the compressed stream into IDAT chunks as it is written.
+    private static final class IdatStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[IDAT_CHUNK];
+        private int size;
+
+        IdatStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == buffer.length) flushChunk();
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == buffer.length) flushChunk();
+                int n = Math.min(len, buffer.length - size);
+                System.arraycopy(b, off, buffer, size, n);
+                size += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (size > 0) chunk(out, "IDAT", buffer, size);
+            size = 0;
+        }
+
+        // Leaves out open; the IEND chunk still follows.
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+            out.flush();
+        }
+    }
+
+    static void writeSvg(GanttRenderer r, Path file) throws IOException {
+        int width = r.width, height = Math.max(1, r.height);
+        // Label widths decide which labels fit, so measure as on screen.
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D sg = scratch.createGraphics();
+        GanttTiles.prepare(sg);
+        FontMetrics fm = sg.getFontMetrics();
+        sg.dispose();
+
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                    + "\" viewBox=\"0 0 " + width + " " + height + "\" font-family=\"Arial\" font-weight=\"bold\""
+                    + " font-size=\"12\">\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"#ffffff\"/>\n");
+            SvgCanvas canvas = new SvgCanvas();
+            for (int x = 0, t = 0; x < width; x += GanttTiles.TILE_WIDTH, t++) {
+                Rectangle clip = new Rectangle(x, 0, GanttTiles.TILE_WIDTH, height);
+                canvas.svg.append("<clipPath id=\"t").append(t).append("\"><rect x=\"").append(x)
+                        .append("\" y=\"0\" width=\"").append(clip.width).append("\" height=\"").append(height)
+                        .append("\"/></clipPath>\n<g clip-path=\"url(#t").append(t).append(")\">\n");
+                r.paint(canvas, fm, clip);
+                if (x == 0) r.paintCaptions(canvas, 4, clip);
+                canvas.svg.append("</g>\n");
+                out.append(canvas.svg);
+                canvas.svg.setLength(0);
+            }
+            out.write("</svg>\n");
+        }
+    }
+
+    // Collects one tile's elements; writeSvg writes them out after each tile.
+    private static final class SvgCanvas implements GanttRenderer.Canvas {
+        final StringBuilder svg = new StringBuilder();
+        private String color = "#000000";
+
+        @Override
+        public void setColor(Color c) {
+            color = String.format("#%06x", c.getRGB() & 0xFFFFFF);
+        }
+
+        @Override
+        public void fillRect(int x, int y, int width, int height) {
+            svg.append("<rect x=\"").append(x).append("\" y=\"").append(y).append("\" width=\"").append(width)
+                    .append("\" height=\"").append(height).append("\" fill=\"").append(color).append("\"/>\n");
+        }
+
+        // Graphics.drawRect outlines the pixels from x to x + width inclusive.
+        @Override
+        public void drawRect(int x, int y, int width, int height) {
+            svg.append("<rect x=\"").append(x + 0.5).append("\" y=\"").append(y + 0.5).append("\" width=\"")
+                    .append(width).append("\" height=\"").append(height).append("\" fill=\"none\" stroke=\"")
+                    .append(color).append("\"/>\n");
+        }
+
+        @Override
+        public void drawLine(int x1, int y1, int x2, int y2) {
+            svg.append("<line x1=\"").append(x1 + 0.5).append("\" y1=\"").append(y1 + 0.5).append("\" x2=\"")
+                    .append(x2 + 0.5).append("\" y2=\"").append(y2 + 0.5).append("\" stroke=\"").append(color)
+                    .append("\"/>\n");
+        }
+
+        @Override
+        public void drawString(String text, int x, int y) {
+            svg.append("<text x=\"").append(x).append("\" y=\"").append(y).append("\" fill=\"").append(color)
+                    .append("\">");
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '<') svg.append("&lt;");
+                else if (c == '>') svg.append("&gt;");
+                else if (c == '&') svg.append("&amp;");
+                else svg.append(c);
+            }
+            svg.append("</text>\n");
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.awt.*;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The Gantt chart's drawing code over a frozen view of GanttChartPanel: the
+// blocks, how many are revealed, the zoom and the lane layout. Nothing here
+// reads the panel, so one renderer can paint screen tiles on pool threads or
+// an export on a worker while the panel moves on. Everything is drawn
+// through a Canvas, so the same code writes SVG.
+final class GanttRenderer {
+    static final int MARGIN = 20;
+    static final Font FONT = new Font("Arial", Font.BOLD, 12);
+    static final long MAX_WIDTH = Integer.MAX_VALUE / 2;
+
+    private static final Map<Integer, Color> COLORS = new ConcurrentHashMap<>();
+
+    // The drawing calls the chart makes, as on java.awt.Graphics.
+    interface Canvas {
+        void setColor(Color color);
+
+        void fillRect(int x, int y, int width, int height);
+
+        void drawRect(int x, int y, int width, int height);
+
+        void drawLine(int x1, int y1, int x2, int y2);
+
+        void drawString(String text, int x, int y);
+    }
+
+    static Canvas of(Graphics2D g) {
+        return new Canvas() {
+            @Override
+            public void setColor(Color color) {
+                g.setColor(color);
+            }
+
+            @Override
+            public void fillRect(int x, int y, int width, int height) {
+                g.fillRect(x, y, width, height);
+            }
+
+            @Override
+            public void drawRect(int x, int y, int width, int height) {
+                g.drawRect(x, y, width, height);
+            }
+
+            @Override
+            public void drawLine(int x1, int y1, int x2, int y2) {
+                g.drawLine(x1, y1, x2, y2);
+            }
+
+            @Override
+            public void drawString(String text, int x, int y) {
+                g.drawString(text, x, y);
+            }
+        };
+    }
+
+    final BlockSource blocks;
+    // One lane per CPU or algorithm, or null for a single lane; blocks is then
+    // the lanes merged in end-time order.
+    final BlockSource[] lanes;
+    final String[] laneLabels;
+    final int limit;
+    final double scale;
+    final int origin;
+    final int blockHeight, laneGap;
+    final int width, height;
+    // Zoomed out, the summaries of blocks or of each lane, fetched on the
+    // event thread; null when drawing block by block.
+    private final TimelineSummary summary;
+    private final TimelineSummary[] laneSummaries;
+
+    GanttRenderer(BlockSource blocks, BlockSource[] lanes, String[] laneLabels, int limit, double scale, int origin,
+                  int blockHeight, int laneGap, int width, int height,
+                  TimelineSummary summary, TimelineSummary[] laneSummaries) {
+        this.blocks = blocks;
+        this.lanes = lanes;
+        this.laneLabels = laneLabels;
+        this.limit = Math.min(limit, blocks.size());
+        this.scale = scale;
+        this.origin = origin;
+        this.blockHeight = blockHeight;
+        this.laneGap = laneGap;
+        this.width = width;
+        this.height = height;
+        this.summary = summary;
+        this.laneSummaries = laneSummaries;
+    }
+
+    // The same picture read through BlockSource.concurrentView, for a thread
+    // other than the one that made this renderer.
+    GanttRenderer reader() {
+        BlockSource[] laneViews = null;
+        if (lanes != null) {
+            laneViews = new BlockSource[lanes.length];
+            for (int l = 0; l < lanes.length; l++) laneViews[l] = lanes[l].concurrentView();
+        }
+        return new GanttRenderer(blocks.concurrentView(), laneViews, laneLabels, limit, scale, origin,
+                blockHeight, laneGap, width, height, summary, laneSummaries);
+    }
+
+    // Whether other draws the same picture as this one wherever the two
+    // reveal the same blocks, i.e. whether tiles can be kept between them.
+    boolean sameLayout(GanttRenderer other) {
+        if (other == null || other.blocks != blocks || other.lanes != lanes || other.laneLabels != laneLabels
+                || other.scale != scale || other.origin != origin || other.blockHeight != blockHeight
+                || other.laneGap != laneGap || other.height != height
+                || labelDigits(other.blocks) != labelDigits(blocks) || other.summary != summary) {
+            return false;
+        }
+        if (laneSummaries != null) {
+            for (int l = 0; l < laneSummaries.length; l++) {
+                if (other.laneSummaries[l] != laneSummaries[l]) return false;
+            }
+        }
+        return true;
+    }
+
+    private static int labelDigits(BlockSource source) {
+        return String.valueOf(source.endTime()).length();
+    }
+
+    // What the pixel columns x0 .. x1 show depends on: the revealed blocks
+    // that start before x1 (block labels and time labels only run right), the
+    // end of the last of them (a stream grows its last block in place), and
+    // whether the replay has moved past x1. Equal keys under sameLayout mean
+    // an identical strip. Mid-replay, stacked lanes show blocks by end time,
+    // which says nothing about where they start, so every step changes them.
+    long contentKey(int x0, int x1) {
+        if (lanes != null) return limit >= blocks.size() ? -1 : limit;
+        double t = (x1 - MARGIN) / scale + origin + 1;
+        int time = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.ceil(t)));
+        int before = blocks.firstEndingAfter(time);
+        if (before < blocks.size() && blocks.start(before) < time) before++;
+        int count = Math.min(limit, before);
+        int lastEnd = count == 0 ? 0 : blocks.end(count - 1);
+        return ((long) count << 33) | (limit > count ? 1L << 32 : 0) | (lastEnd & 0xFFFFFFFFL);
+    }
+
+    int xOf(long time) {
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(MAX_WIDTH, MARGIN + Math.round((time - origin) * scale)));
+    }
+
+    static Color colorFor(int pid) {
+        Color color = COLORS.get(pid);
+        if (color == null) {
+            Random rand = new Random(pid * 1000);
+            color = new Color(100 + rand.nextInt(156), 100 + rand.nextInt(156), 100 + rand.nextInt(156));
+            COLORS.put(pid, color);
+        }
+        return color;
+    }
+
+    int laneTop(int lane) {
+        return MARGIN + laneGap + lane * (blockHeight + laneGap);
+    }
+
+    // Draws everything under clip except the lane captions; returns the
+    // number of filled rectangles.
+    int paint(Canvas g, FontMetrics fm, Rectangle clip) {
+        if (limit == 0) return 0;
+        if (lanes != null) {
+            return paintLanes(g, fm, blocks.end(limit - 1), limit >= blocks.size(), clip);
+        }
+        int drawn = paintLane(g, fm, blocks, summary, limit, MARGIN, clip);
+        if (scale >= 1) {
+            paintTimeMarkers(g, fm, blocks, limit, MARGIN, clip);
+        } else {
+            paintTimeAxis(g, fm, blocks, blocks.end(limit - 1), MARGIN, clip);
+        }
+        return drawn;
+    }
+
+    // "CPU n" or the given labels above each lane, where there is room, with
+    // their left edge at x.
+    void paintCaptions(Canvas g, int x, Rectangle clip) {
+        if (lanes == null || laneGap < 14) return;
+        g.setColor(Color.DARK_GRAY);
+        for (int l = 0; l < lanes.length; l++) {
+            if (laneTop(l) - laneGap > clip.y + clip.height || laneTop(l) < clip.y) continue;
+            g.drawString(laneLabels != null ? laneLabels[l] : "CPU " + l, x, laneTop(l) - 3);
+        }
+    }
+
+    private int paintLane(Canvas g, FontMetrics fm, BlockSource source, TimelineSummary lod, int count, int top,
+                          Rectangle clip) {
+        // Zoomed out past one time unit per pixel, draw from the summary level
+        // whose buckets are no wider than a pixel: one rectangle per column at most.
+        int level = -1;
+        if (scale < 1 && lod != null) {
+            level = lod.levelFor(1 / scale);
+        }
+        if (level >= 0) {
+            // The summary covers the whole run; mid-replay, cut it at the cursor.
+            Rectangle shown = clip.intersection(new Rectangle(0, 0, xOf(source.end(count - 1)), height));
+            return shown.isEmpty() ? 0 : paintSummary(g, lod, level, top, shown);
+        }
+        return paintBlocks(g, fm, source, count, top, clip);
+    }
+
+    // Each lane is painted as if it were the only one, in its own row;
+    // mid-replay a lane shows the blocks that end by the replay time.
+    private int paintLanes(Canvas g, FontMetrics fm, int untilTime, boolean complete, Rectangle clip) {
+        int drawn = 0;
+        for (int l = 0; l < lanes.length; l++) {
+            int top = laneTop(l);
+            if (top > clip.y + clip.height || top + blockHeight < clip.y) continue;
+            BlockSource lane = lanes[l];
+            int count = complete ? lane.size() : lane.firstEndingAfter(untilTime);
+            TimelineSummary lod = laneSummaries == null ? null : laneSummaries[l];
+            if (count > 0) drawn += paintLane(g, fm, lane, lod, count, top, clip);
+        }
+        paintTimeAxis(g, fm, blocks, untilTime, laneTop(lanes.length - 1), clip);
+        return drawn;
+    }
+
+    // Only the blocks under the clip: binary search to the first one, stop past the right edge.
+    private int paintBlocks(Canvas g, FontMetrics fm, BlockSource source, int count, int top, Rectangle clip) {
+        int fromTime = (int) Math.max(Integer.MIN_VALUE, Math.floor((clip.x - MARGIN) / scale) + origin);
+        double toTime = (clip.x + clip.width - MARGIN) / scale + origin + 1;
+        int lastX = Integer.MIN_VALUE;
+        int drawn = 0;
+
+        for (int i = source.firstEndingAfter(fromTime); i < count && source.start(i) < toTime; i++) {
+            int x = xOf(source.start(i));
+            int width = xOf(source.end(i)) - x;
+            if (width == 0 && source.end(i) > source.start(i)) {
+                if (x == lastX) continue; // several blocks share this pixel column
+                width = 1;
+            }
+            lastX = x;
+            int pid = source.pid(i);
+
+            g.setColor(colorFor(pid));
+            g.fillRect(x, top, width, blockHeight);
+            drawn++;
+
+            if (width < 3) continue;
+            g.setColor(Color.BLACK);
+            g.drawRect(x, top, width, blockHeight);
+
+            // Center PID text
+            String text = "P" + pid;
+            int textWidth = fm.stringWidth(text);
+            if (textWidth + 4 <= width && fm.getAscent() <= blockHeight) {
+                g.drawString(text, x + (width - textWidth) / 2, top + (blockHeight + fm.getAscent()) / 2);
+            }
+        }
+        return drawn;
+    }
+
+    // Each pixel column takes the dominant pid of the buckets under it, and its
+    // height shows how busy the CPU was there. Equal neighbouring columns are
+    // merged into one rectangle.
+    private int paintSummary(Canvas g, TimelineSummary lod, int level, int top, Rectangle clip) {
+        long bucket = lod.bucketSize(level);
+        int buckets = lod.buckets(level);
+        int runX = clip.x, runPid = -1, runHeight = 0;
+        int drawn = 0;
+        for (int x = clip.x; x <= clip.x + clip.width; x++) {
+            int pid = -1, height = 0;
+            if (x < clip.x + clip.width) {
+                double t0 = (x - MARGIN) / scale + origin - lod.origin;
+                double t1 = (x + 1 - MARGIN) / scale + origin - lod.origin;
+                int b0 = (int) Math.max(0, Math.floor(t0 / bucket));
+                int b1 = (int) Math.min(buckets, Math.ceil(t1 / bucket));
+                long used = 0;
+                int weight = 0;
+                for (int b = b0; b < b1; b++) {
+                    used += lod.busy(level, b);
+                    if (lod.weight(level, b) > weight) {
+                        weight = lod.weight(level, b);
+                        pid = lod.pid(level, b);
+                    }
+                }
+                if (b1 > b0 && pid >= 0) {
+                    height = (int) Math.max(1, Math.round(blockHeight * (double) used / ((long) (b1 - b0) * bucket)));
+                }
+            }
+            if (pid != runPid || height != runHeight) {
+                if (runPid >= 0 && runHeight > 0) {
+                    g.setColor(colorFor(runPid));
+                    g.fillRect(runX, top + blockHeight - runHeight, x - runX, runHeight);
+                    drawn++;
+                }
+                runX = x;
+                runPid = pid;
+                runHeight = height;
+            }
+        }
+        g.setColor(Color.GRAY);
+        g.drawLine(clip.x, top + blockHeight, clip.x + clip.width, top + blockHeight);
+        return drawn;
+    }
+
+    // Block boundaries are labelled greedily left to right, skipping any label
+    // that would overlap the previous one. The greedy pass restarts at fixed
+    // pages of the axis (and never lets a label cross a page edge), so a
+    // partial repaint makes the same choices as a full one.
+    private void paintTimeMarkers(Canvas g, FontMetrics fm, BlockSource source, int count, int top, Rectangle clip) {
+        int labelWidth = fm.stringWidth(String.valueOf(source.endTime())) + 8;
+        long page = labelWidth * 64L;
+        long pageStart = Math.floorDiv((long) clip.x - MARGIN, page) * page;
+        long clipEnd = (long) clip.x + clip.width - MARGIN;
+
+        g.setColor(Color.BLACK);
+        long nextFree = Long.MIN_VALUE;
+        int lastTime = Integer.MIN_VALUE;
+        for (int i = source.firstEndingAfter((int) Math.max(Integer.MIN_VALUE, Math.floor(pageStart / scale) + origin - 1));
+             i < count; i++) {
+            for (int t = 0; t < 2; t++) {
+                int time = t == 0 ? source.start(i) : source.end(i);
+                long x = xOf(time) - MARGIN;
+                if (time == lastTime || x < pageStart) continue;
+                if (x > clipEnd) return;
+                lastTime = time;
+                if (x >= pageStart + page) {
+                    pageStart = Math.floorDiv(x, page) * page;
+                    nextFree = Long.MIN_VALUE;
+                }
+                long pageEnd = pageStart + page;
+                if (x < nextFree || x + labelWidth > pageEnd) continue;
+                nextFree = x + labelWidth;
+                if (x + labelWidth >= clip.x - MARGIN) {
+                    g.drawString(String.valueOf(time), MARGIN + (int) x, top + blockHeight + 15);
+                }
+            }
+        }
+    }
+
+    // Zoomed out, boundaries are too dense to label, so draw a regular axis
+    // with a 1-2-5 step wide enough for the longest label.
+    private void paintTimeAxis(Canvas g, FontMetrics fm, BlockSource source, int untilTime, int top, Rectangle clip) {
+        int labelWidth = fm.stringWidth(String.valueOf(source.endTime())) + 12;
+        double minStep = labelWidth / scale;
+        long step = 1;
+        while (step < minStep) {
+            if (step * 2 >= minStep) step *= 2;
+            else if (step * 5 >= minStep) step *= 5;
+            else step *= 10;
+        }
+        g.setColor(Color.BLACK);
+        long first = (long) Math.floor(((clip.x - MARGIN - labelWidth) / scale + origin) / step) * step;
+        for (long time = Math.max(0, first); time <= untilTime; time += step) {
+            int x = xOf(time);
+            if (x > clip.x + clip.width) break;
+            g.drawLine(x, top + blockHeight, x, top + blockHeight + 4);
+            g.drawString(String.valueOf(time), x, top + blockHeight + 15);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Offscreen tiles for GanttChartPanel. The chart is cut into TILE_WIDTH pixel
+// columns; each is painted once into an image, and scrolling or repainting
+// just copies the images. A tile is painted again only when its picture
+// changes: a new zoom or layout drops them all, while a replay step only
+// redoes the tiles its new blocks reach (see GanttRenderer.contentKey).
+//
+// Tiles are painted on a shared pool, the visible ones in parallel while the
+// event thread waits, and the ones either side of the view ahead of time so
+// scrolling finds them ready. Sources that may change while painting (a
+// running stream or live chart) are painted on the event thread instead,
+// and not ahead.
+final class GanttTiles {
+    static final int TILE_WIDTH = 512;
+    // Image memory kept per chart; least recently shown tiles go first.
+    private static final long MEMORY = 64L << 20;
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "gantt-tiles");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final class Tile {
+        final long key;
+        FutureTask<BufferedImage> image;
+        // Rectangles filled painting it, for Instrumentation.
+        volatile int drawn;
+
+        Tile(long key) {
+            this.key = key;
+        }
+    }
+
+    private final Map<Integer, Tile> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private GanttRenderer layout;
+    private double deviceScale = 1;
+    private Color background = Color.WHITE;
+
+    // Forgets every tile, e.g. when the blocks were changed in place.
+    void clear() {
+        for (Tile t : tiles.values()) t.image.cancel(false);
+        tiles.clear();
+        layout = null;
+    }
+
+    // Draws clip from tiles of renderer's picture onto g, painting the
+    // missing ones first. shared says whether renderer's sources can be read
+    // off the event thread. Returns the rectangles filled by tiles painted
+    // for this call.
+    int paint(Graphics2D g, Rectangle clip, GanttRenderer renderer, Color background, boolean shared) {
+        // HiDPI screens scale g; tiles are painted at device resolution.
+        AffineTransform at = g.getTransform();
+        double scale = Math.max(1, at.getScaleX());
+        if (!renderer.sameLayout(layout) || scale != deviceScale || !background.equals(this.background)) {
+            clear();
+            deviceScale = scale;
+            this.background = background;
+        }
+        layout = renderer;
+
+        int first = Math.floorDiv(clip.x, TILE_WIDTH);
+        int last = Math.floorDiv(clip.x + clip.width - 1, TILE_WIDTH);
+        List<Tile> fresh = new ArrayList<>();
+        for (int i = first; i <= last; i++) {
+            Tile t = tile(i, renderer, shared);
+            if (!t.image.isDone()) fresh.add(t);
+        }
+        int drawn = 0;
+        for (int i = first; i <= last; i++) {
+            Tile t = tiles.get(i);
+            BufferedImage image = await(t);
+            if (fresh.contains(t)) drawn += t.drawn;
+            g.drawImage(image, i * TILE_WIDTH, 0, TILE_WIDTH, renderer.height, null);
+        }
+        if (shared) {
+            if (first > 0) tile(first - 1, renderer, true);
+            if ((last + 1L) * TILE_WIDTH < renderer.width) tile(last + 1, renderer, true);
+        }
+        evict(last - first + 1, renderer.height);
+        return drawn;
+    }
+
+    // The current tile i, submitting it for painting when missing or stale.
+    private Tile tile(int i, GanttRenderer renderer, boolean shared) {
+        int x = i * TILE_WIDTH;
+        long key = renderer.contentKey(x, x + TILE_WIDTH);
+        Tile t = tiles.get(i);
+        if (t != null && t.key == key) return t;
+        if (t != null) t.image.cancel(false);
+        Tile tile = new Tile(key);
+        double scale = deviceScale;
+        Color fill = background;
+        tile.image = new FutureTask<>(() -> render(shared ? renderer.reader() : renderer, x, scale, fill, tile));
+        tiles.put(i, tile);
+        if (shared) POOL.execute(tile.image);
+        else tile.image.run();
+        return tile;
+    }
+
+    private static BufferedImage render(GanttRenderer renderer, int x, double deviceScale, Color background,
+                                        Tile tile) {
+        int w = (int) Math.ceil(TILE_WIDTH * deviceScale);
+        int h = Math.max(1, (int) Math.ceil(renderer.height * deviceScale));
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(background);
+            g.fillRect(0, 0, w, h);
+            g.scale(deviceScale, deviceScale);
+            g.translate(-x, 0);
+            Rectangle clip = new Rectangle(x, 0, TILE_WIDTH, renderer.height);
+            g.clip(clip);
+            prepare(g);
+            tile.drawn = renderer.paint(GanttRenderer.of(g), g.getFontMetrics(), clip);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // The font and hints the panel paints with, text antialiased like the desktop's.
+    static void prepare(Graphics2D g) {
+        g.setFont(GanttRenderer.FONT);
+        Object hints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        if (hints instanceof Map) {
+            g.addRenderingHints((Map<?, ?>) hints);
+        } else {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        }
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    private static BufferedImage await(Tile t) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return t.image.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    // Drops the least recently shown tiles over MEMORY, keeping at least the
+    // ones just drawn (the most recently used).
+    private void evict(int keep, int height) {
+        long bytes = (long) Math.ceil(TILE_WIDTH * deviceScale) * (long) Math.ceil(height * deviceScale) * 4;
+        long max = Math.max(keep + 2, MEMORY / Math.max(1, bytes));
+        Iterator<Tile> it = tiles.values().iterator();
+        while (tiles.size() > max && it.hasNext()) {
+            it.next().image.cancel(false);
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Re-runs one algorithm on edited versions of a workload without starting
+// over. A full run drops a Checkpoint about every 1/CHECKPOINTS of the
+// expected makespan. After an edit, rerun() restores the last checkpoint
+// taken before any changed process could have arrived, simulates forward,
+// and at each later checkpoint compares its state with the previous run's
+// checkpoint at the same time. Once they match, everything after that point
+// is copied from the previous run instead of being simulated again.
+//
+// Only arrival and burst edits are resumed; adding, removing or renumbering
+// rows, or changing a nice level, falls back to a full run, as does every
+// run of a policy whose queue lives outside the Simulation (CFS, EEVDF).
+public class IncrementalScheduler {
+    private static final int CHECKPOINTS = 256;
+
+    private final String algorithm;
+    private final int quantum, levels;
+
+    private Workload previous;
+    private Timeline previousTimeline;
+    private List<Simulation.Checkpoint> checkpoints = new ArrayList<>();
+
+    private long simulatedSteps;
+    private int resumedAt = -1, convergedAt = -1;
+
+    public IncrementalScheduler(String algorithm, int quantum, int levels) {
+        Simulation.policy(algorithm, quantum, levels); // rejects unknown names up front
+        this.algorithm = algorithm;
+        this.quantum = quantum;
+        this.levels = levels;
+    }
+
+    public boolean matches(String algorithm, int quantum, int levels) {
+        return this.algorithm.equals(algorithm) && this.quantum == quantum && this.levels == levels;
+    }
+
+    // Steps actually simulated by the last call.
+    public long simulatedSteps() {
+        return simulatedSteps;
+    }
+
+    // Time the last rerun resumed from, or -1 after a full run.
+    public int resumedAt() {
+        return resumedAt;
+    }
+
+    // Time the last rerun caught up with the previous run, or -1 if it did not.
+    public int convergedAt() {
+        return convergedAt;
+    }
+
+    // Schedules w from time 0 and remembers it for later reruns. Metrics are
+    // written into w's columns.
+    public Timeline run(Workload w, SimulationListener listener) {
+        w.reset();
+        Simulation sim = new Simulation(w, policy());
+        List<Simulation.Checkpoint> taken = new ArrayList<>();
+        simulate(sim, interval(w), taken, null, null, listener);
+        remember(w, sim.timeline(), taken);
+        resumedAt = -1;
+        simulatedSteps = sim.steps();
+        listener.onFinish(sim.events(), sim.peakQueueDepth());
+        return sim.timeline();
+    }
+
+    // Same result as run(w), reusing the previous run where the edit cannot
+    // have changed anything.
+    public Timeline rerun(Workload w, SimulationListener listener) {
+        if (previous == null || !sameRows(previous, w)) return run(w, listener);
+
+        int firstChange = Integer.MAX_VALUE;
+        boolean[] changed = new boolean[w.size()];
+        boolean any = false;
+        for (int row = 0; row < w.size(); row++) {
+            if (w.arrival[row] != previous.arrival[row] || w.burst[row] != previous.burst[row]) {
+                changed[row] = true;
+                any = true;
+                firstChange = Math.min(firstChange, Math.min(w.arrival[row], previous.arrival[row]));
+            }
+        }
+        if (!any) {
+            copyResults(previous, w);
+            simulatedSteps = 0;
+            resumedAt = convergedAt = -1;
+            listener.onFinish(0, new int[policy().levels()]);
+            return previousTimeline.copy();
+        }
+
+        // Last checkpoint taken before any changed row could have been admitted.
+        Simulation.Checkpoint from = null;
+        for (Simulation.Checkpoint c : checkpoints) {
+            if (c.time >= firstChange) break;
+            from = c;
+        }
+        if (from == null) return run(w, listener);
+
+        Simulation sim = new Simulation(w, policy());
+        prepare(sim, from);
+        sim.restore(from, previousTimeline.copy());
+        long before = sim.steps();
+
+        List<Simulation.Checkpoint> taken = new ArrayList<>();
+        for (Simulation.Checkpoint c : checkpoints) {
+            if (c.time > from.time) break;
+            taken.add(c);
+        }
+        int[] oldPosition = new int[w.size()];
+        int[] oldOrder = previous.arrivalOrder();
+        for (int i = 0; i < oldOrder.length; i++) oldPosition[oldOrder[i]] = i;
+
+        resumedAt = from.time;
+        simulate(sim, interval(previous), taken, changed, oldPosition, listener);
+        simulatedSteps = sim.steps() - before;
+        remember(w, sim.timeline(), taken);
+        listener.onFinish(sim.events(), sim.peakQueueDepth());
+        return sim.timeline();
+    }
+
+    private Simulation.Policy policy() {
+        return Simulation.policy(algorithm, quantum, levels);
+    }
+
+    private static int interval(Workload w) {
+        long end = 0, work = 0;
+        for (int row = 0; row < w.size(); row++) {
+            end = Math.max(end, w.arrival[row]);
+            work += w.burst[row];
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (end + work) / CHECKPOINTS));
+    }
+
+    // Runs sim to the end, checkpointing each time the clock passes a multiple
+    // of interval. With changed != null this is a rerun: each checkpoint is
+    // compared with the previous run, and on a match the rest is spliced in.
+    private void simulate(Simulation sim, int interval, List<Simulation.Checkpoint> taken,
+                          boolean[] changed, int[] oldPosition, SimulationListener listener) {
+        long mark = taken.isEmpty() ? 0 : (taken.get(taken.size() - 1).time / interval + 1) * (long) interval;
+        convergedAt = -1;
+        boolean resumable = sim.policy.resumable();
+        while (true) {
+            if (resumable && sim.time >= mark) {
+                Simulation.Checkpoint c = sim.checkpoint();
+                taken.add(c);
+                mark = (c.time / interval + 1) * (long) interval;
+                if (changed != null) {
+                    int match = find(c.time);
+                    if (match >= 0 && converged(sim, c, checkpoints.get(match), changed, oldPosition)) {
+                        splice(sim, c, match, taken);
+                        convergedAt = c.time;
+                        return;
+                    }
+                }
+            }
+            if (!sim.step(listener)) return;
+        }
+    }
+
+    private int find(int time) {
+        int lo = 0, hi = checkpoints.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = checkpoints.get(mid).time;
+            if (t < time) lo = mid + 1;
+            else if (t > time) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // Same clock, same arrivals still to come, same queue in the same order
+    // with the same work left, and the same last block (SRTF may extend it).
+    private boolean converged(Simulation sim, Simulation.Checkpoint now, Simulation.Checkpoint old,
+                              boolean[] changed, int[] oldPosition) {
+        if (now.cursor != old.cursor || now.lastEnd != old.lastEnd || now.rows.length != old.rows.length) {
+            return false;
+        }
+        for (int row = 0; row < changed.length; row++) {
+            if (changed[row] && (sim.position[row] >= now.cursor || oldPosition[row] >= old.cursor)) return false;
+        }
+        for (int i = 0; i < now.rows.length; i++) {
+            if (now.rows[i] != old.rows[i] || now.remaining[i] != old.remaining[i]
+                    || now.level[i] != old.level[i] || (now.start[i] == -1) != (old.start[i] == -1)) {
+                return false;
+            }
+        }
+        Timeline t = sim.timeline();
+        if (now.blocks == 0 || old.blocks == 0) return now.blocks == old.blocks;
+        return t.pid(now.blocks - 1) == previousTimeline.pid(old.blocks - 1);
+    }
+
+    // From here on the new run would repeat the old one: take the old blocks,
+    // the old completions and the old checkpoints (shifted to the new block count).
+    private void splice(Simulation sim, Simulation.Checkpoint now, int match, List<Simulation.Checkpoint> taken) {
+        Simulation.Checkpoint old = checkpoints.get(match);
+        Timeline t = sim.timeline();
+        if (old.blocks > 0) t.setEnd(now.blocks - 1, previousTimeline.end(old.blocks - 1));
+        for (int i = old.blocks; i < previousTimeline.size(); i++) {
+            t.add(previousTimeline.pid(i), previousTimeline.start(i), previousTimeline.end(i));
+        }
+
+        Workload w = sim.w;
+        for (int i = 0; i < now.rows.length; i++) {
+            int row = now.rows[i];
+            w.remaining[row] = 0;
+            if (w.start[row] == -1) {
+                w.start[row] = previous.start[row];
+                w.response[row] = w.start[row] - w.arrival[row];
+            }
+            w.completion[row] = previous.completion[row];
+            w.turnaround[row] = w.completion[row] - w.arrival[row];
+            w.waiting[row] = w.turnaround[row] - w.burst[row];
+        }
+        for (int i = now.cursor; i < sim.order.length; i++) {
+            copyRow(previous, w, sim.order[i]);
+        }
+
+        // A start time never changes once set, so the later checkpoints take
+        // theirs from the columns just filled in.
+        int shift = now.blocks - old.blocks;
+        long stepShift = now.steps - old.steps;
+        for (int i = match + 1; i < checkpoints.size(); i++) {
+            Simulation.Checkpoint c = checkpoints.get(i);
+            int[] start = new int[c.rows.length];
+            for (int k = 0; k < start.length; k++) start[k] = c.start[k] == -1 ? -1 : w.start[c.rows[k]];
+            taken.add(new Simulation.Checkpoint(c.time, c.cursor, c.blocks + shift, c.lastEnd,
+                    c.steps + stepShift, c.rows, c.remaining, start, c.level));
+        }
+    }
+
+    // Columns as they stood at checkpoint c: rows finished before it keep the
+    // previous results, queued and future rows are reset (restore() then fills
+    // in the queued ones).
+    private void prepare(Simulation sim, Simulation.Checkpoint c) {
+        Workload w = sim.w;
+        copyResults(previous, w);
+        for (int i = c.cursor; i < sim.order.length; i++) resetRow(w, sim.order[i]);
+        for (int row : c.rows) resetRow(w, row);
+    }
+
+    private static void resetRow(Workload w, int row) {
+        w.remaining[row] = w.burst[row];
+        w.start[row] = -1;
+        w.completion[row] = 0;
+        w.waiting[row] = 0;
+        w.turnaround[row] = 0;
+        w.response[row] = -1;
+    }
+
+    private void remember(Workload w, Timeline timeline, List<Simulation.Checkpoint> taken) {
+        previous = w.copy();
+        previousTimeline = timeline.copy();
+        checkpoints = taken;
+    }
+
+    private static boolean sameRows(Workload a, Workload b) {
+        if (a.size() != b.size()) return false;
+        for (int row = 0; row < a.size(); row++) {
+            if (a.id[row] != b.id[row] || a.nice[row] != b.nice[row]) return false;
+        }
+        return true;
+    }
+
+    private static void copyResults(Workload from, Workload to) {
+        for (int row = 0; row < to.size(); row++) copyRow(from, to, row);
+    }
+
+    private static void copyRow(Workload from, Workload to, int row) {
+        to.remaining[row] = from.remaining[row];
+        to.start[row] = from.start[row];
+        to.completion[row] = from.completion[row];
+        to.waiting[row] = from.waiting[row];
+        to.turnaround[row] = from.turnaround[row];
+        to.response[row] = from.response[row];
+    }
+}
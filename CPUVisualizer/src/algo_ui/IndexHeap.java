@@ -0,0 +1,105 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.Arrays;
+
+// Binary min-heap of int indices ordered by (key, tie), kept in primitive arrays.
+class IndexHeap {
+    private int[] values;
+    private long[] keys;
+    private long[] ties;
+    private int size;
+
+    IndexHeap(int capacity) {
+        capacity = Math.max(capacity, 8);
+        values = new int[capacity];
+        keys = new long[capacity];
+        ties = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    IndexHeap copy() {
+        IndexHeap h = new IndexHeap(size);
+        System.arraycopy(values, 0, h.values, 0, size);
+        System.arraycopy(keys, 0, h.keys, 0, size);
+        System.arraycopy(ties, 0, h.ties, 0, size);
+        h.size = size;
+        return h;
+    }
+
+    int peek() {
+        return values[0];
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    long peekTie() {
+        return ties[0];
+    }
+
+    void push(int value, long key, long tie) {
+        if (size == values.length) {
+            int capacity = values.length * 2;
+            values = Arrays.copyOf(values, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            ties = Arrays.copyOf(ties, capacity);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(key, tie, keys[parent], ties[parent])) break;
+            values[i] = values[parent];
+            keys[i] = keys[parent];
+            ties[i] = ties[parent];
+            i = parent;
+        }
+        values[i] = value;
+        keys[i] = key;
+        ties[i] = tie;
+    }
+
+    int pop() {
+        int top = values[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(values[last], keys[last], ties[last]);
+        }
+        return top;
+    }
+
+    private void siftDown(int value, long key, long tie) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && less(keys[right], ties[right], keys[child], ties[child])) {
+                child = right;
+            }
+            if (!less(keys[child], ties[child], key, tie)) break;
+            values[i] = values[child];
+            keys[i] = keys[child];
+            ties[i] = ties[child];
+            i = child;
+        }
+        values[i] = value;
+        keys[i] = key;
+        ties[i] = tie;
+    }
+
+    private static boolean less(long key, long tie, long otherKey, long otherTie) {
+        return key < otherKey || (key == otherKey && tie < otherTie);
+    }
+}
@@ -0,0 +1,100 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Where SimulationProbes and repaint timings go. Two sinks are built in: the
+// SchedulerMetrics MXBean (off until its Enabled attribute or
+// -Dcpuvisualizer.metrics=true turns it on) and, when the JFR classes from
+// CPUVisualizer/jfr are on the class path (built on JDK 11+), JFR events that
+// are on whenever a recording enables them.
+//
+// With every sink disabled begin() returns null and callers skip their
+// timing, so the cost is one check per simulation and per repaint; the
+// engines only keep a few counters and report them once through onFinish.
+public final class Instrumentation {
+    public interface Sink {
+        boolean isEnabled();
+
+        void simulation(SimulationProbe probe);
+
+        void paint(long nanos, int blocks, int lanes);
+    }
+
+    private static final List<Sink> SINKS = new CopyOnWriteArrayList<>();
+    private static final SchedulerMetrics METRICS = new SchedulerMetrics();
+    private static boolean registered;
+    // Touched on the event thread only.
+    private static SimulationProbe awaitingPaint;
+
+    static {
+        SINKS.add(METRICS);
+        try {
+            SINKS.add((Sink) Class.forName("CPUVisualizer.jfr.JfrSink").getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            // not built, or running on a JVM without jdk.jfr
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    // Publishes the SchedulerMetrics bean over JMX, once, when asked for:
+    // -Dcpuvisualizer.metrics is set (to false, the bean starts disabled) or
+    // a JMX agent was started with -Dcom.sun.management.jmxremote. Otherwise
+    // the platform MBean server is never started. Main and BatchRunner.main
+    // call this at startup, since starting the server takes a few hundred
+    // milliseconds that would otherwise land in the first timed run.
+    public static synchronized void registerMBean() {
+        if (registered) return;
+        registered = true;
+        if (System.getProperty("cpuvisualizer.metrics") == null
+                && System.getProperty("com.sun.management.jmxremote") == null) {
+            return;
+        }
+        METRICS.register();
+    }
+
+    public static void addSink(Sink sink) {
+        SINKS.add(sink);
+    }
+
+    public static boolean isEnabled() {
+        for (Sink s : SINKS) {
+            if (s.isEnabled()) return true;
+        }
+        return false;
+    }
+
+    // A probe for one simulation, or null when nothing is listening.
+    public static SimulationProbe begin(String config, int processes) {
+        return isEnabled() ? new SimulationProbe(config, processes) : null;
+    }
+
+    public static void end(SimulationProbe probe) {
+        if (probe == null) return;
+        for (Sink s : SINKS) {
+            if (s.isEnabled()) s.simulation(probe);
+        }
+    }
+
+    // Ends probe after the next chart repaint, which becomes its paint phase.
+    // Event thread only; a probe still waiting is ended without one.
+    public static void endAfterPaint(SimulationProbe probe) {
+        if (awaitingPaint != null) end(awaitingPaint);
+        awaitingPaint = probe;
+    }
+
+    // One repaint of the Gantt chart. Event thread only.
+    public static void paint(long nanos, int blocks, int lanes) {
+        SimulationProbe probe = awaitingPaint;
+        if (probe != null) {
+            awaitingPaint = null;
+            probe.painted(nanos);
+            end(probe);
+        }
+        for (Sink s : SINKS) {
+            if (s.isEnabled()) s.paint(nanos, blocks, lanes);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.border.Border;
+import java.awt.*;
+
+// Cell editor for whole numbers. The text is checked on every keystroke: an
+// invalid value turns the border red and the edit cannot be committed.
+public class IntCellEditor extends DefaultCellEditor {
+    private static final Border VALID = BorderFactory.createLineBorder(Color.GRAY);
+    private static final Border INVALID = BorderFactory.createLineBorder(Color.RED, 2);
+
+    private final JTextField field;
+    private int minimum, maximum;
+
+    public IntCellEditor() {
+        super(new JTextField());
+        field = (JTextField) getComponent();
+        field.setHorizontalAlignment(JTextField.RIGHT);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { validateText(); }
+            @Override public void removeUpdate(DocumentEvent e) { validateText(); }
+            @Override public void changedUpdate(DocumentEvent e) { validateText(); }
+        });
+    }
+
+    @Override
+    public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected,
+                                                 int row, int column) {
+        Object model = table.getModel();
+        int modelColumn = table.convertColumnIndexToModel(column);
+        boolean workload = model instanceof WorkloadTableModel;
+        minimum = workload ? ((WorkloadTableModel) model).minimumValue(modelColumn) : Integer.MIN_VALUE;
+        maximum = workload ? ((WorkloadTableModel) model).maximumValue(modelColumn) : Integer.MAX_VALUE;
+        Component c = super.getTableCellEditorComponent(table, value, isSelected, row, column);
+        validateText();
+        return c;
+    }
+
+    private boolean validateText() {
+        boolean ok = parse() != null;
+        field.setBorder(ok ? VALID : INVALID);
+        field.setToolTipText(ok ? null : maximum == Integer.MAX_VALUE
+                ? "Enter a whole number ≥ " + minimum
+                : "Enter a whole number from " + minimum + " to " + maximum);
+        return ok;
+    }
+
+    private Integer parse() {
+        try {
+            int v = Integer.parseInt(field.getText().trim());
+            return v >= minimum && v <= maximum ? v : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Object getCellEditorValue() {
+        return parse();
+    }
+
+    @Override
+    public boolean stopCellEditing() {
+        if (!validateText()) {
+            Toolkit.getDefaultToolkit().beep();
+            return false;
+        }
+        return super.stopCellEditing();
+    }
+}
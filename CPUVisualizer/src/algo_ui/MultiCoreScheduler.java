@@ -0,0 +1,421 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+// N-CPU versions of the SchedulerLogic engines. All CPUs share one event heap
+// keyed on the time each CPU's current slice ends, so a step costs O(log cpus)
+// however many cores there are, and idle cores cost nothing.
+//
+// Run queues follow the Balancing mode:
+//   GLOBAL   - one queue that every CPU pulls from.
+//   PERIODIC - one queue per CPU; arrivals are dealt round-robin and every
+//              balanceInterval time units work moves from the longest queue
+//              to the shortest until they differ by at most one.
+//   STEALING - one queue per CPU, dealt the same way; a CPU that runs dry
+//              takes the head of the longest queue.
+// A process dispatched on a different CPU than it last ran on pays
+// migrationCost time units before its slice starts.
+//
+// With one CPU every algorithm schedules exactly like its single-CPU engine.
+//
+// These engines are separate from the Simulation kernel and cover only the
+// built-in FCFS, SJF, SRTF, RR and MLFQ, which BuiltinPolicies maps to the
+// kind constants below. The fair policies (CFS, EEVDF) and algorithms added
+// through PolicyProvider run on one CPU only; supports() says which is which.
+public class MultiCoreScheduler {
+    public enum Balancing { GLOBAL, PERIODIC, STEALING }
+
+    private final int cpus;
+    private final Balancing balancing;
+    private int balanceInterval = 10;
+    private int migrationCost;
+
+    public MultiCoreScheduler(int cpus, Balancing balancing) {
+        this.cpus = Math.max(1, cpus);
+        this.balancing = balancing;
+    }
+
+    public MultiCoreScheduler balanceInterval(int interval) {
+        this.balanceInterval = Math.max(1, interval);
+        return this;
+    }
+
+    public MultiCoreScheduler migrationCost(int cost) {
+        this.migrationCost = Math.max(0, cost);
+        return this;
+    }
+
+    public int cpus() {
+        return cpus;
+    }
+
+    @Override
+    public String toString() {
+        String s = "cpus=" + cpus + " " + balancing.name().toLowerCase() + " migration=" + migrationCost;
+        return balancing == Balancing.PERIODIC ? s + " interval=" + balanceInterval : s;
+    }
+
+    // One lane of blocks per CPU plus the balancing counters. Process metrics
+    // are written into the Process objects, as with the single-CPU engines.
+    public static class Result {
+        public final Timeline[] lanes;
+        public long migrations, steals, preemptions, balanceMoves;
+
+        Result(int cpus) {
+            lanes = new Timeline[cpus];
+            for (int i = 0; i < cpus; i++) lanes[i] = new Timeline();
+        }
+
+        public int makespan() {
+            int end = 0;
+            for (Timeline lane : lanes) end = Math.max(end, lane.endTime());
+            return end;
+        }
+    }
+
+    public Result run(String algorithm, List<SchedulerLogic.Process> processes, int quantum, int levels) {
+        return run(algorithm, processes, quantum, levels, SimulationListener.NONE);
+    }
+
+    public Result run(String algorithm, List<SchedulerLogic.Process> processes, int quantum, int levels,
+                      SimulationListener listener) {
+        return new Run(algorithm, processes, quantum, levels, listener).execute();
+    }
+
+    // Engine kinds; BuiltinPolicies records which one each built-in uses.
+    static final int FCFS = 0, SJF = 1, SRTF = 2, RR = 3, MLFQ = 4;
+
+    // Whether the registered algorithm has an N-CPU version here.
+    public static boolean supports(String algorithm) {
+        PolicyProvider provider = Policies.lookup(algorithm);
+        return provider != null && BuiltinPolicies.multiCoreKind(provider) >= 0;
+    }
+
+    private class Run {
+        private final int kind;
+        private final SchedulerLogic.Process[] ps;
+        private final int quantum;
+        private final int[] quantums;
+        private final SimulationListener listener;
+        private final Result result = new Result(cpus);
+
+        // Per process, indexed in arrival order.
+        private final int[] level, lastCpu;
+
+        // Per CPU: process running (-1 when idle), when its slice started, and
+        // the tie of its live event (older heap entries for the CPU are stale).
+        private final int[] running, sliceStart;
+        private final long[] eventTie;
+        private final BitSet idle = new BitSet(cpus);
+        private final BitSet dirty = new BitSet(cpus);
+
+        private final IndexHeap[] queues;
+        private final IndexHeap events = new IndexHeap(cpus + 1);
+        private final int balanceEvent = cpus;
+        private boolean balancePending;
+        private int queued, placeCursor, completed;
+        private long seq, steps;
+        // Queued processes per MLFQ level (one slot otherwise) over all queues, and the most seen.
+        private final int[] depth, peakDepth;
+
+        // Scratch for the SRTF preemption check.
+        private final int[] arrivalsTo;
+        private final BitSet touched;
+        private final int[] victims;
+        private long[] heldKeys = new long[8], heldTies = new long[8];
+        private int[] heldValues = new int[8];
+        // Scratch for slices that ended and go back to a queue.
+        private final int[] requeue;
+
+        Run(String algorithm, List<SchedulerLogic.Process> processes, int quantum, int levels,
+            SimulationListener listener) {
+            kind = BuiltinPolicies.multiCoreKind(Policies.get(algorithm));
+            if (kind < 0) throw new IllegalArgumentException(algorithm + " runs on one CPU only");
+            SchedulerLogic.sortByArrival(processes);
+            this.ps = processes.toArray(new SchedulerLogic.Process[0]);
+            this.quantum = Math.max(1, quantum);
+            this.quantums = SchedulerLogic.mlfqQuantums(quantum, Math.max(1, levels));
+            this.listener = listener;
+
+            int n = ps.length;
+            level = new int[n];
+            lastCpu = new int[n];
+            java.util.Arrays.fill(lastCpu, -1);
+
+            running = new int[cpus];
+            sliceStart = new int[cpus];
+            eventTie = new long[cpus];
+            java.util.Arrays.fill(running, -1);
+            idle.set(0, cpus);
+
+            queues = new IndexHeap[balancing == Balancing.GLOBAL ? 1 : cpus];
+            for (int q = 0; q < queues.length; q++) queues[q] = new IndexHeap(16);
+            arrivalsTo = new int[queues.length];
+            touched = new BitSet(queues.length);
+            victims = new int[cpus];
+            requeue = new int[cpus];
+            depth = new int[kind == MLFQ ? quantums.length : 1];
+            peakDepth = new int[depth.length];
+        }
+
+        Result execute() {
+            int n = ps.length, next = 0;
+            while (completed < n) {
+                if (listener.isCancelled()) throw new CancellationException("Simulation cancelled");
+                long nextEvent = events.isEmpty() ? Long.MAX_VALUE : events.peekKey();
+                long nextArrival = next < n ? ps[next].arrival : Long.MAX_VALUE;
+                if (nextEvent == Long.MAX_VALUE && nextArrival == Long.MAX_VALUE) break;
+                int now = (int) Math.min(nextEvent, nextArrival);
+                steps++;
+
+                // Slices ending now, in the order they were dispatched.
+                boolean balanceDue = false;
+                int requeued = 0;
+                while (!events.isEmpty() && events.peekKey() == now) {
+                    long tie = events.peekTie();
+                    int cpu = events.pop();
+                    if (cpu == balanceEvent) {
+                        balanceDue = true;
+                    } else if (tie == eventTie[cpu]) {
+                        int i = endSlice(cpu, now);
+                        if (ps[i].remaining > 0) requeue[requeued++] = i;
+                    }
+                }
+
+                // Arrivals join before the preempted slices go back, as in the single-CPU engines.
+                while (next < n && ps[next].arrival <= now) admit(next++, now);
+
+                for (int r = 0; r < requeued; r++) {
+                    int i = requeue[r];
+                    if (kind == MLFQ) level[i] = Math.min(level[i] + 1, quantums.length - 1);
+                    enqueue(queueOf(lastCpu[i]), i);
+                }
+
+                if (kind == SRTF) {
+                    for (int q = touched.nextSetBit(0); q >= 0; q = touched.nextSetBit(q + 1)) preempt(q, now);
+                }
+                touched.clear();
+
+                if (balanceDue) balance(now);
+                dispatch(now);
+            }
+            listener.onFinish(steps, peakDepth.clone());
+            return result;
+        }
+
+        private int queueOf(int cpu) {
+            return balancing == Balancing.GLOBAL ? 0 : cpu;
+        }
+
+        private void admit(int i, int now) {
+            // Zero-length jobs are admitted as the single-CPU policies admit
+            // them: RR and SRTF leave them out, never started or completed;
+            // FCFS, SJF and MLFQ queue them, and they finish on dispatch
+            // after an empty slice.
+            if (ps[i].remaining <= 0 && (kind == RR || kind == SRTF)) return;
+            int q = balancing == Balancing.GLOBAL ? 0 : placeCursor++ % cpus;
+            enqueue(q, i);
+            if (kind == SRTF) {
+                arrivalsTo[q]++;
+                touched.set(q);
+            }
+            if (balancing == Balancing.PERIODIC && !balancePending) {
+                events.push(balanceEvent, (long) now + balanceInterval, ++seq);
+                balancePending = true;
+            }
+        }
+
+        private void enqueue(int q, int i) {
+            SchedulerLogic.Process p = ps[i];
+            long s = ++seq;
+            switch (kind) {
+                case FCFS: queues[q].push(i, p.arrival, i); break;
+                case SJF:  queues[q].push(i, p.burst, i); break;
+                case SRTF: queues[q].push(i, p.remaining, s); break;
+                case MLFQ: queues[q].push(i, level[i], s); break;
+                default:   queues[q].push(i, s, 0); break;
+            }
+            queued++;
+            dirty.set(q);
+            int l = kind == MLFQ ? level[i] : 0;
+            if (++depth[l] > peakDepth[l]) peakDepth[l] = depth[l];
+        }
+
+        private int poll(int q) {
+            queued--;
+            int i = queues[q].pop();
+            depth[kind == MLFQ ? level[i] : 0]--;
+            return i;
+        }
+
+        private void dispatch(int now) {
+            if (balancing == Balancing.GLOBAL) {
+                for (int cpu = idle.nextSetBit(0); cpu >= 0 && !queues[0].isEmpty(); cpu = idle.nextSetBit(cpu + 1)) {
+                    start(cpu, poll(0), now);
+                }
+                dirty.clear();
+                return;
+            }
+            for (int cpu = dirty.nextSetBit(0); cpu >= 0; cpu = dirty.nextSetBit(cpu + 1)) {
+                if (idle.get(cpu) && !queues[cpu].isEmpty()) start(cpu, poll(cpu), now);
+            }
+            dirty.clear();
+            if (balancing != Balancing.STEALING) return;
+            // Whatever is still queued sits behind a busy CPU; idle ones take from the longest queue.
+            for (int cpu = idle.nextSetBit(0); cpu >= 0 && queued > 0; cpu = idle.nextSetBit(cpu + 1)) {
+                int victim = longestQueue();
+                start(cpu, poll(victim), now);
+                result.steals++;
+            }
+        }
+
+        private int longestQueue() {
+            int best = 0;
+            for (int q = 1; q < queues.length; q++) {
+                if (queues[q].size() > queues[best].size()) best = q;
+            }
+            return best;
+        }
+
+        private void start(int cpu, int i, int now) {
+            SchedulerLogic.Process p = ps[i];
+            int begin = now;
+            if (lastCpu[i] >= 0 && lastCpu[i] != cpu) {
+                result.migrations++;
+                begin += migrationCost;
+            }
+            lastCpu[i] = cpu;
+            if (p.start == -1) {
+                p.start = begin;
+                p.response = begin - p.arrival;
+            }
+            int exec;
+            switch (kind) {
+                case RR:   exec = Math.min(quantum, p.remaining); break;
+                case MLFQ: exec = Math.min(Math.max(1, quantums[level[i]]), p.remaining); break;
+                default:   exec = p.remaining; break;
+            }
+            running[cpu] = i;
+            sliceStart[cpu] = begin;
+            idle.clear(cpu);
+            eventTie[cpu] = ++seq;
+            events.push(cpu, (long) begin + exec, eventTie[cpu]);
+        }
+
+        // Stops whatever runs on cpu at time now and returns its index.
+        private int endSlice(int cpu, int now) {
+            int i = running[cpu];
+            SchedulerLogic.Process p = ps[i];
+            int from = sliceStart[cpu];
+            if (now > from) {
+                p.remaining -= now - from;
+                result.lanes[cpu].append(p.id, from, now);
+                listener.onSlice(cpu, p.id, from, now);
+            }
+            running[cpu] = -1;
+            eventTie[cpu] = ++seq;
+            idle.set(cpu);
+            dirty.set(queueOf(cpu));
+            if (p.remaining == 0) complete(i, now);
+            return i;
+        }
+
+        private void complete(int i, int now) {
+            SchedulerLogic.Process p = ps[i];
+            p.completion = now;
+            p.turnaround = p.completion - p.arrival;
+            p.waiting = p.turnaround - p.burst;
+            completed++;
+            listener.onComplete(p);
+        }
+
+        private int remainingAt(int cpu, int now) {
+            return ps[running[cpu]].remaining - Math.max(0, now - sliceStart[cpu]);
+        }
+
+        // SRTF: each process that just arrived on queue q may displace the CPU
+        // served by q with the most work left. As in runSRTFEvents, a running
+        // process loses ties to the ones waiting.
+        private void preempt(int q, int now) {
+            int arrived = arrivalsTo[q];
+            arrivalsTo[q] = 0;
+
+            int idleCount = 0, busy = 0;
+            if (balancing == Balancing.GLOBAL) {
+                for (int cpu = 0; cpu < cpus; cpu++) {
+                    if (running[cpu] < 0) idleCount++;
+                    else victims[busy++] = cpu;
+                }
+            } else if (running[q] < 0) {
+                idleCount = 1;
+            } else {
+                victims[busy++] = q;
+            }
+            if (busy == 0) return;
+            sortByRemainingDesc(busy, now);
+
+            // The head of the queue goes to idle CPUs first; the rest are the challengers.
+            int held = 0, want = Math.min(queues[q].size(), idleCount + Math.min(arrived, busy));
+            if (want > heldValues.length) {
+                heldValues = new int[want];
+                heldKeys = new long[want];
+                heldTies = new long[want];
+            }
+            for (; held < want; held++) {
+                heldKeys[held] = queues[q].peekKey();
+                heldTies[held] = queues[q].peekTie();
+                heldValues[held] = queues[q].pop();
+            }
+            int displaced = 0;
+            while (displaced < busy && idleCount + displaced < held
+                    && ps[heldValues[idleCount + displaced]].remaining <= remainingAt(victims[displaced], now)) {
+                displaced++;
+            }
+            for (int h = 0; h < held; h++) queues[q].push(heldValues[h], heldKeys[h], heldTies[h]);
+            for (int v = 0; v < displaced; v++) {
+                int cpu = victims[v];
+                int i = endSlice(cpu, now);
+                enqueue(q, i);
+                result.preemptions++;
+            }
+        }
+
+        private void sortByRemainingDesc(int count, int now) {
+            for (int a = 1; a < count; a++) {
+                int cpu = victims[a], rem = remainingAt(cpu, now), b = a - 1;
+                while (b >= 0 && remainingAt(victims[b], now) < rem) {
+                    victims[b + 1] = victims[b];
+                    b--;
+                }
+                victims[b + 1] = cpu;
+            }
+        }
+
+        // PERIODIC: even out queue lengths, then re-arm while work is left.
+        private void balance(int now) {
+            while (true) {
+                int longest = 0, shortest = 0;
+                for (int q = 1; q < queues.length; q++) {
+                    if (load(q) > load(longest)) longest = q;
+                    if (load(q) < load(shortest)) shortest = q;
+                }
+                if (load(longest) - load(shortest) <= 1 || queues[longest].isEmpty()) break;
+                long key = queues[longest].peekKey(), tie = queues[longest].peekTie();
+                queues[shortest].push(queues[longest].pop(), key, tie);
+                dirty.set(shortest);
+                result.balanceMoves++;
+            }
+            if (queued > 0 || idle.cardinality() < cpus) {
+                events.push(balanceEvent, (long) now + balanceInterval, ++seq);
+            } else {
+                balancePending = false;
+            }
+        }
+
+        private int load(int q) {
+            return queues[q].size() + (running[q] >= 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+
+// Runs one algorithm on a live ProcessSource instead of a finished workload.
+// A reader thread takes arrivals off the source into an inbox; run() moves
+// them into an online Simulation and advances it as far as the arrivals so
+// far allow, then waits for more. Slices and completions go to the listener
+// as they happen, and finished processes are forgotten, so a feed can run
+// indefinitely in constant memory as long as the CPU keeps up with it.
+//
+// Arrivals are expected in time order; one that is earlier than an arrival
+// already seen is treated as arriving at that later time.
+public class OnlineScheduler {
+    // Arrivals the reader may get ahead of the scheduler before it waits.
+    private static final int INBOX_LIMIT = 1 << 16;
+    private static final long WAIT_MILLIS = 100;
+
+    private final String algorithm;
+    private final int quantum, levels;
+
+    private final Object lock = new Object();
+    // Guarded by lock.
+    private Workload inbox = new Workload(1024);
+    private int watermark = Integer.MIN_VALUE;
+    private boolean ended, stopped;
+    private IOException failure;
+
+    private volatile ProcessSource source;
+    private volatile int time, backlog;
+    private volatile long arrived;
+
+    public OnlineScheduler(String algorithm, int quantum, int levels) {
+        Simulation.policy(algorithm, quantum, levels); // rejects unknown names up front
+        this.algorithm = algorithm;
+        this.quantum = quantum;
+        this.levels = levels;
+    }
+
+    // Schedules source's processes until the source ends or stop() is called,
+    // then finishes the ones already in and returns. Blocks the calling
+    // thread; cancelling through the listener ends it at once with a
+    // CancellationException. A source that fails is rethrown once the
+    // processes read before the failure are done.
+    public void run(ProcessSource source, SimulationListener listener) {
+        this.source = source;
+        Simulation sim = new Simulation(Simulation.policy(algorithm, quantum, levels));
+        Thread reader = new Thread(() -> read(source), "process-source");
+        reader.setDaemon(true);
+        reader.start();
+        Workload taken = new Workload(1024);
+        try {
+            boolean open = true;
+            int applied = Integer.MIN_VALUE;
+            while (open) {
+                synchronized (lock) {
+                    // After a pass the simulation is as far as it can get,
+                    // so only new arrivals or a later watermark can move it.
+                    while (inbox.size() == 0 && watermark == applied && !ended && !stopped) {
+                        if (listener.isCancelled()) throw new CancellationException("Simulation cancelled");
+                        lock.wait(WAIT_MILLIS);
+                    }
+                    Workload t = inbox;
+                    inbox = taken;
+                    taken = t;
+                    applied = watermark;
+                    open = !ended && !stopped;
+                    lock.notifyAll();
+                }
+                for (int i = 0; i < taken.size(); i++) {
+                    sim.offer(taken.id[i], taken.arrival[i], taken.burst[i]);
+                }
+                arrived += taken.size();
+                taken.clear();
+                sim.advance(applied);
+                if (!open) sim.close();
+                while (sim.step(listener)) {
+                    time = sim.time;
+                }
+                time = sim.time;
+                backlog = sim.live();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Simulation interrupted");
+        } finally {
+            stop();
+        }
+        listener.onFinish(sim.events(), sim.peakQueueDepth());
+        synchronized (lock) {
+            if (failure != null) throw new UncheckedIOException(failure);
+        }
+    }
+
+    private void read(ProcessSource source) {
+        try {
+            source.run(new ProcessSource.Feed() {
+                @Override
+                public void row(int pid, int arrival, int burst) {
+                    if (burst < 0) return;
+                    synchronized (lock) {
+                        while (inbox.size() >= INBOX_LIMIT && !stopped) {
+                            try {
+                                lock.wait(WAIT_MILLIS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                        }
+                        if (stopped) return;
+                        inbox.add(pid, arrival, burst);
+                        watermark = Math.max(watermark, arrival);
+                        lock.notifyAll();
+                    }
+                }
+
+                @Override
+                public void advance(int time) {
+                    synchronized (lock) {
+                        if (time > watermark) {
+                            watermark = time;
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            });
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+            }
+        } finally {
+            synchronized (lock) {
+                ended = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Stops taking arrivals: the source is closed and run() finishes the
+    // processes already read. Safe from any thread.
+    public void stop() {
+        synchronized (lock) {
+            if (stopped) return;
+            stopped = true;
+            lock.notifyAll();
+        }
+        ProcessSource s = source;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // nothing more will be read either way
+            }
+        }
+    }
+
+    // Simulated time reached so far.
+    public int time() {
+        return time;
+    }
+
+    public long arrived() {
+        return arrived;
+    }
+
+    // Processes read and not finished yet.
+    public int backlog() {
+        return backlog;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+}
@@ -0,0 +1,67 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.*;
+
+// Registry of the scheduling algorithms by name: the built-in ones first, in
+// selector order, then any PolicyProvider found through ServiceLoader. A
+// provider whose name is already taken is skipped, as is one that fails to
+// load. Built-ins are registered directly rather than through a services
+// file, so builds without resources (plain javac) still have them.
+public final class Policies {
+    private static final Map<String, PolicyProvider> PROVIDERS = load();
+
+    private Policies() {
+    }
+
+    private static Map<String, PolicyProvider> load() {
+        Map<String, PolicyProvider> providers = new LinkedHashMap<>();
+        for (PolicyProvider p : BuiltinPolicies.ALL) providers.put(p.name(), p);
+        Iterator<PolicyProvider> found = ServiceLoader.load(PolicyProvider.class,
+                Policies.class.getClassLoader()).iterator();
+        while (true) {
+            PolicyProvider p;
+            try {
+                if (!found.hasNext()) break;
+            } catch (ServiceConfigurationError e) {
+                // The services files themselves are unreadable; nothing more to find.
+                System.err.println("policies: " + e.getMessage());
+                break;
+            }
+            try {
+                p = found.next();
+            } catch (ServiceConfigurationError e) {
+                System.err.println("policies: " + e.getMessage());
+                continue;
+            }
+            if (providers.putIfAbsent(p.name(), p) != null) {
+                System.err.println("policies: " + p.getClass().getName() + " reuses the name " + p.name()
+                        + "; skipped");
+            }
+        }
+        return Collections.unmodifiableMap(providers);
+    }
+
+    // Every algorithm name, built-ins first.
+    public static String[] names() {
+        return PROVIDERS.keySet().toArray(new String[0]);
+    }
+
+    public static PolicyProvider get(String name) {
+        PolicyProvider p = lookup(name);
+        if (p == null) throw new IllegalArgumentException("Unknown algorithm: " + name);
+        return p;
+    }
+
+    // The provider registered as name, or null.
+    static PolicyProvider lookup(String name) {
+        return PROVIDERS.get(name);
+    }
+
+    // The registered name equal to name ignoring case, or null.
+    public static String find(String name) {
+        for (String n : PROVIDERS.keySet()) {
+            if (n.equalsIgnoreCase(name)) return n;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package CPUVisualizer.src.algo_ui;
+
+// Service interface for scheduling algorithms. A provider names one algorithm
+// and makes a fresh Simulation.Policy for each run; the Simulation kernel does
+// the rest (the clock, arrivals, slices, metrics and timeline), so a policy is
+// only the queueing rule.
+//
+// Besides the built-in algorithms (BuiltinPolicies), Policies loads every
+// provider listed in a META-INF/services/CPUVisualizer.src.algo_ui.PolicyProvider
+// file on the classpath, so a jar next to the visualizer can add algorithms
+// to the selector, --batch and the live mode without touching this code.
+public interface PolicyProvider {
+    // The selector and --batch name, e.g. "RR".
+    String name();
+
+    // A policy for one run. quantum and levels come straight from the UI or
+    // the command line; a policy that does not use them ignores them.
+    Simulation.Policy create(int quantum, int levels);
+
+    // Whether results depend on the quantum, so e.g. --batch only sweeps it
+    // for algorithms that do.
+    default boolean usesQuantum() {
+        return false;
+    }
+
+    // Same for levels.
+    default boolean usesLevels() {
+        return false;
+    }
+
+    // The settings that change the result, for ResultCache keys: runs with
+    // equal configs on the same workload must give the same schedule.
+    default String config(int quantum, int levels) {
+        String config = name();
+        if (usesQuantum()) config += " q=" + Math.max(1, quantum);
+        if (usesLevels()) config += " l=" + Math.max(1, levels);
+        return config;
+    }
+}
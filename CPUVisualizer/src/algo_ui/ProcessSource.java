@@ -0,0 +1,19 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// A live feed of process arrivals for OnlineScheduler, e.g. one of the
+// ProcessSources. run() hands processes to the feed as they come in and
+// returns when the feed ends; close() may be called from any thread and
+// makes a running run() return soon after.
+public interface ProcessSource extends Closeable {
+    interface Feed extends WorkloadIO.RowSink {
+        // No process will arrive before time any more. Sources that know the
+        // clock (a generator) call this between arrivals so preemptive
+        // algorithms can run up to it instead of waiting for the next one.
+        default void advance(int time) {}
+    }
+
+    void run(Feed feed) throws IOException;
+}
@@ -0,0 +1,233 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// The built-in ProcessSources. The socket, file and pipe sources read
+// "pid arrival burst" (or "arrival burst") lines, the same rows --batch and
+// Import read from .txt and .csv files, and pass each one on as soon as its
+// line ends. The generator stands in for a real feed.
+public final class ProcessSources {
+    // How often a followed file is checked for new lines, and how long the
+    // generator sleeps at most between clock updates.
+    private static final long POLL_MILLIS = 50;
+
+    private ProcessSources() {
+    }
+
+    // "generator" or "generator:UNITS_PER_SECOND", "tcp:PORT", or a file or
+    // named pipe to follow, optionally written "file:PATH".
+    public static ProcessSource of(String spec, WorkloadGenerator generator) {
+        spec = spec.trim();
+        if (spec.equals("generator") || spec.startsWith("generator:")) {
+            double rate = 20;
+            if (spec.startsWith("generator:")) {
+                try {
+                    rate = Double.parseDouble(spec.substring("generator:".length()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a rate: " + spec);
+                }
+            }
+            return generator(generator, rate);
+        }
+        if (spec.startsWith("tcp:")) {
+            try {
+                return socket(Integer.parseInt(spec.substring("tcp:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a port: " + spec);
+            }
+        }
+        if (spec.startsWith("file:")) spec = spec.substring("file:".length());
+        if (spec.isEmpty()) throw new IllegalArgumentException("No live source given");
+        return tail(Paths.get(spec));
+    }
+
+    // Listens on port on the loopback interface; each connection may send
+    // lines (e.g. "nc localhost 5000 < jobs.txt"), one connection at a time.
+    public static ProcessSource socket(int port) {
+        if (port < 0 || port > 65535) throw new IllegalArgumentException("Port must be 0..65535: " + port);
+        return new SocketSource(port);
+    }
+
+    // Follows a file like tail -f, starting at its first line; a file that
+    // shrinks is read again from the top. A named pipe is read until its
+    // writer closes it and then opened again for the next writer.
+    public static ProcessSource tail(Path file) {
+        return new TailSource(file);
+    }
+
+    // Replays generator's workload in real time, unitsPerSecond time units
+    // per second, until closed.
+    public static ProcessSource generator(WorkloadGenerator generator, double unitsPerSecond) {
+        if (!(unitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + unitsPerSecond);
+        }
+        return new GeneratorSource(generator, unitsPerSecond);
+    }
+
+    private static final class SocketSource implements ProcessSource {
+        private final int port;
+        private volatile boolean closed;
+        private volatile ServerSocket server;
+        private volatile Socket client;
+
+        SocketSource(int port) {
+            this.port = port;
+        }
+
+        @Override
+        public void run(Feed feed) throws IOException {
+            try (ServerSocket s = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+                server = s;
+                if (closed) return;
+                while (!closed) {
+                    try (Socket c = s.accept()) {
+                        client = c;
+                        WorkloadIO.readLines(c.getInputStream(), feed);
+                    } catch (IOException e) {
+                        if (closed) return;
+                        // a client that hangs up mid-line only loses that line
+                    }
+                }
+            } catch (IOException e) {
+                if (!closed) throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            Socket c = client;
+            if (c != null) c.close();
+            ServerSocket s = server;
+            if (s != null) s.close();
+        }
+    }
+
+    private static final class TailSource implements ProcessSource {
+        private final Path file;
+        private volatile boolean closed;
+        private volatile InputStream pipe;
+
+        TailSource(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void run(Feed feed) throws IOException {
+            if (!Files.isRegularFile(file)) {
+                // Opening a pipe blocks until a writer turns up, and close()
+                // cannot cut that short; the feed just ignores what follows.
+                while (!closed) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        pipe = in;
+                        if (!closed) WorkloadIO.readLines(in, feed);
+                    } catch (IOException e) {
+                        if (!closed) throw e;
+                    }
+                }
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WorkloadIO.readLines(new FollowStream(channel), feed);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            InputStream in = pipe;
+            if (in != null) in.close();
+        }
+
+        // Reads the file as it grows; end of stream only once closed.
+        private final class FollowStream extends InputStream {
+            private final FileChannel channel;
+
+            FollowStream(FileChannel channel) {
+                this.channel = channel;
+            }
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                while (!closed) {
+                    int n = channel.read(ByteBuffer.wrap(b, off, len));
+                    if (n > 0) return n;
+                    if (channel.size() < channel.position()) channel.position(0);
+                    try {
+                        Thread.sleep(POLL_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Stopped following " + file);
+                    }
+                }
+                return -1;
+            }
+        }
+    }
+
+    private static final class GeneratorSource implements ProcessSource {
+        private final WorkloadGenerator generator;
+        private final double unitsPerSecond;
+        private volatile boolean closed;
+
+        GeneratorSource(WorkloadGenerator generator, double unitsPerSecond) {
+            this.generator = generator;
+            this.unitsPerSecond = unitsPerSecond;
+        }
+
+        @Override
+        public void run(Feed feed) throws IOException {
+            long t0 = System.nanoTime();
+            try {
+                generator.generate(Integer.MAX_VALUE, (first, arrival, burst, n) -> {
+                    for (int i = 0; i < n; i++) {
+                        waitFor(arrival[i], t0, feed);
+                        feed.row(first + i, arrival[i], burst[i]);
+                    }
+                });
+            } catch (InterruptedIOException e) {
+                // closed
+            }
+        }
+
+        // Sleeps until the clock reaches time, moving the feed's horizon on
+        // along the way.
+        private void waitFor(int time, long t0, Feed feed) throws InterruptedIOException {
+            while (true) {
+                if (closed) throw new InterruptedIOException("Generator closed");
+                double now = (System.nanoTime() - t0) / 1e9 * unitsPerSecond;
+                if (now >= time) return;
+                feed.advance((int) now);
+                long sleep = Math.min(POLL_MILLIS, (long) Math.ceil((time - now) / unitsPerSecond * 1000));
+                try {
+                    Thread.sleep(Math.max(1, sleep));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Generator interrupted");
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Runs RR and MLFQ over a range of quanta (and MLFQ level counts) in parallel
+// against one read-only base workload, and marks the Pareto-optimal settings.
+// With a ResultCache, settings already run on the same workload are reused.
+public class QuantumSweep {
+
+    public static class Result {
+        public final String algorithm;
+        public final int quantum, levels;
+        public final double avgWaiting, avgTurnaround, avgResponse;
+        public boolean pareto;
+
+        Result(String algorithm, int quantum, int levels, Map<String, Double> avg) {
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.levels = levels;
+            this.avgWaiting = avg.get("avgWaiting");
+            this.avgTurnaround = avg.get("avgTurnaround");
+            this.avgResponse = avg.get("avgResponse");
+        }
+
+        public String label() {
+            return levels > 0 ? algorithm + " L=" + levels : algorithm;
+        }
+
+        boolean dominates(Result o) {
+            return avgWaiting <= o.avgWaiting && avgTurnaround <= o.avgTurnaround && avgResponse <= o.avgResponse
+                    && (avgWaiting < o.avgWaiting || avgTurnaround < o.avgTurnaround || avgResponse < o.avgResponse);
+        }
+    }
+
+    public static List<Result> run(Workload base, int minQuantum, int maxQuantum, int[] levelCounts,
+                                   boolean roundRobin, boolean mlfq) {
+        return run(base, minQuantum, maxQuantum, levelCounts, roundRobin, mlfq, null);
+    }
+
+    public static List<Result> run(Workload base, int minQuantum, int maxQuantum, int[] levelCounts,
+                                   boolean roundRobin, boolean mlfq, ResultCache cache) {
+        // Repeated level counts would only repeat a point.
+        Set<String> seen = new HashSet<>();
+        List<int[]> configs = new ArrayList<>();
+        for (int q = Math.max(1, minQuantum); q <= maxQuantum; q++) {
+            if (roundRobin && seen.add(ResultCache.config("RR", q, 0, null))) configs.add(new int[]{q, 0});
+            if (mlfq) {
+                for (int levels : levelCounts) {
+                    int l = Math.max(1, levels);
+                    if (seen.add(ResultCache.config("MLFQ", q, l, null))) configs.add(new int[]{q, l});
+                }
+            }
+        }
+
+        List<Result> results = configs.parallelStream()
+                .map(c -> runOne(base, c[0], c[1], cache))
+                .collect(Collectors.toList());
+        markPareto(results);
+        return results;
+    }
+
+    private static Result runOne(Workload base, int quantum, int levels, ResultCache cache) {
+        String algorithm = levels == 0 ? "RR" : "MLFQ";
+        List<SchedulerLogic.Process> processes;
+        if (cache == null) {
+            processes = base.toProcesses();
+            SchedulerLogic.run(algorithm, processes, quantum, levels);
+        } else {
+            ResultCache.Entry entry = cache.computeIfAbsent(ResultCache.key(base, algorithm, quantum, levels, null),
+                    () -> {
+                        List<SchedulerLogic.Process> ps = base.toProcesses();
+                        Timeline t = Timeline.of(SchedulerLogic.run(algorithm, ps, quantum, levels));
+                        return new ResultCache.Entry(new Timeline[]{t}, Workload.of(ps));
+                    });
+            processes = entry.results.toProcesses();
+        }
+        return new Result(algorithm, quantum, levels, SchedulerLogic.calculateAverages(processes));
+    }
+
+    // Flags every result that no other result beats on all three averages.
+    public static void markPareto(List<Result> results) {
+        for (Result r : results) {
+            r.pareto = true;
+            for (Result o : results) {
+                if (o != r && o.dominates(r)) {
+                    r.pareto = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    public static List<Result> paretoFront(List<Result> results) {
+        List<Result> front = new ArrayList<>();
+        for (Result r : results) {
+            if (r.pareto) front.add(r);
+        }
+        return front;
+    }
+}
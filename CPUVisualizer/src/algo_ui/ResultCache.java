@@ -0,0 +1,273 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Finished runs keyed by what produced them: a fingerprint of the workload's
+// pid/arrival/burst columns plus the scheduler configuration. Entries are
+// evicted least recently used first once their estimated size passes the
+// memory budget; with a spill directory they are written there as
+// TraceFiles instead of dropped and read back on the next miss, which also
+// carries them across sessions. Concurrent requests for the same key compute it once.
+// The lock only covers the bookkeeping: spill files are written and read
+// outside it, so a thread on disk I/O never holds up hits on other threads.
+//
+// Cached lanes and result columns are shared, so callers must not modify them.
+public class ResultCache {
+    public static final class Key {
+        public final long fingerprint;
+        public final int size;
+        public final String config;
+
+        Key(long fingerprint, int size, String config) {
+            this.fingerprint = fingerprint;
+            this.size = size;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return fingerprint == k.fingerprint && size == k.size && config.equals(k.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint) * 31 + config.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return config + " on " + size + " processes #" + Long.toHexString(fingerprint);
+        }
+
+        String fileName() {
+            return String.format("%016x-%08x-%d.trace", fingerprint, config.hashCode(), size);
+        }
+    }
+
+    // One CPU lane per Timeline and the workload with its metric columns filled in.
+    public static final class Entry {
+        public final Timeline[] lanes;
+        public final Workload results;
+        final long bytes;
+
+        public Entry(Timeline[] lanes, Workload results) {
+            this.lanes = lanes;
+            this.results = results;
+            long b = 64 + results.heapBytes();
+            for (Timeline lane : lanes) b += lane.heapBytes();
+            this.bytes = b;
+        }
+
+        public RunStatistics statistics() {
+            return RunStatistics.of(lanes, results);
+        }
+    }
+
+    private final long budget;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    // Evicted entries whose spill file is still being written; still served from memory.
+    private final Map<Key, Entry> spilling = new HashMap<>();
+    private Path spillDir;
+    private long bytes;
+    private long hits, misses, spilled;
+
+    public ResultCache(long budgetBytes) {
+        this.budget = Math.max(0, budgetBytes);
+    }
+
+    // Keeps evicted entries as files in dir (created if needed) rather than dropping them.
+    public synchronized ResultCache spillTo(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        this.spillDir = dir;
+        return this;
+    }
+
+    public static Key key(Workload w, String algorithm, int quantum, int levels, MultiCoreScheduler multiCore) {
+        return new Key(fingerprint(w), w.size(), config(algorithm, quantum, levels, multiCore));
+    }
+
+    // The settings that affect the result, so e.g. FCFS ignores the quantum.
+    static String config(String algorithm, int quantum, int levels, MultiCoreScheduler multiCore) {
+        String config = Policies.get(algorithm).config(quantum, levels);
+        return multiCore == null || multiCore.cpus() == 1 ? config : config + " " + multiCore;
+    }
+
+    // 64-bit hash of the input columns in row order.
+    public static long fingerprint(Workload w) {
+        long h = 0x9E3779B97F4A7C15L * (w.size() + 1);
+        for (int row = 0; row < w.size(); row++) {
+            h = mix(h ^ w.id[row]);
+            h = mix(h ^ w.arrival[row]);
+            h = mix(h ^ w.burst[row]);
+            // Mixed in only when set, so workloads without nice keep their old keys.
+            if (w.nice[row] != 0) h = mix(h ^ ((long) w.nice[row] << 32));
+        }
+        return h;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public Entry get(Key key) {
+        Entry e;
+        Path dir;
+        Map<Key, Entry> evicted = Collections.emptyMap();
+        synchronized (this) {
+            e = entries.get(key);
+            // Evicted, but its file is not written yet: take it back.
+            if (e == null && (e = spilling.get(key)) != null) evicted = insert(key, e);
+            dir = spillDir;
+        }
+        if (e == null && dir != null) {
+            Entry loaded = load(dir, key);
+            if (loaded != null) {
+                synchronized (this) {
+                    // Another thread may have loaded or computed it meanwhile.
+                    e = entries.get(key);
+                    if (e == null) evicted = insert(key, e = loaded);
+                }
+            }
+        }
+        spill(evicted);
+        synchronized (this) {
+            if (e == null) misses++;
+            else hits++;
+        }
+        return e;
+    }
+
+    public void put(Key key, Entry entry) {
+        Map<Key, Entry> evicted;
+        synchronized (this) {
+            Entry old = entries.remove(key);
+            if (old != null) bytes -= old.bytes;
+            evicted = insert(key, entry);
+        }
+        spill(evicted);
+    }
+
+    // The cached entry for key, or the one compute returns, which is then cached.
+    // If another thread is already computing key this waits for its result.
+    public Entry computeIfAbsent(Key key, Supplier<Entry> compute) {
+        Entry e = get(key);
+        if (e != null) return e;
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> theirs = inFlight.putIfAbsent(key, mine);
+        if (theirs != null) return theirs.join();
+        try {
+            e = compute.get();
+            put(key, e);
+            mine.complete(e);
+            return e;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized String summary() {
+        return String.format("%d cached runs, %d KB, %d hits / %d misses, %d spilled",
+                entries.size(), bytes / 1024, hits, misses, spilled);
+    }
+
+    // Caches entry and returns what it pushed out, for spill() to write once
+    // the lock is released. The caller holds the lock.
+    private Map<Key, Entry> insert(Key key, Entry entry) {
+        Map<Key, Entry> evicted = spillDir == null ? null : new LinkedHashMap<>();
+        if (entry.bytes > budget) {
+            if (evicted != null) evicted.put(key, entry);
+        } else {
+            entries.put(key, entry);
+            bytes += entry.bytes;
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (bytes > budget && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                bytes -= eldest.getValue().bytes;
+                if (evicted != null) evicted.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+        if (evicted == null || evicted.isEmpty()) return Collections.emptyMap();
+        spilling.putAll(evicted);
+        return evicted;
+    }
+
+    // Writes evicted entries to the spill directory; called without the lock.
+    // Spilling is best effort: a failed write just means a later miss.
+    private void spill(Map<Key, Entry> evicted) {
+        if (evicted.isEmpty()) return;
+        Path dir;
+        synchronized (this) {
+            dir = spillDir;
+        }
+        for (Map.Entry<Key, Entry> e : evicted.entrySet()) {
+            Path file = dir.resolve(e.getKey().fileName());
+            boolean written = false;
+            if (!Files.exists(file)) {
+                try {
+                    Path tmp = Files.createTempFile(dir, "spill", ".tmp");
+                    TraceFile.write(tmp, e.getKey(), e.getValue().lanes, e.getValue().results);
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    written = true;
+                } catch (IOException ignored) {
+                    // leave it uncached
+                }
+            }
+            synchronized (this) {
+                spilling.remove(e.getKey(), e.getValue());
+                if (written) spilled++;
+            }
+        }
+    }
+
+    private static Entry load(Path dir, Key key) {
+        Path file = dir.resolve(key.fileName());
+        if (!Files.isRegularFile(file)) return null;
+        try (TraceFile trace = TraceFile.open(file)) {
+            if (!trace.key().equals(key)) return null;
+            BlockSource[] mapped = trace.lanes();
+            Timeline[] lanes = new Timeline[mapped.length];
+            for (int c = 0; c < lanes.length; c++) {
+                lanes[c] = new Timeline(mapped[c].size());
+                for (int i = 0; i < mapped[c].size(); i++) {
+                    lanes[c].add(mapped[c].pid(i), mapped[c].start(i), mapped[c].end(i));
+                }
+            }
+            return new Entry(lanes, trace.readResults());
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package CPUVisualizer.src.algo_ui;
+
+// Fixed-size Timeline for live runs: blocks are added at the end and, once
+// capacity is reached, each new block pushes out the oldest one, so memory
+// stays the same however long a feed runs. Index 0 is the oldest block still
+// held. Packed like Timeline, two longs per block.
+public class RingTimeline implements BlockSource {
+    private final long[] data;
+    private final int capacity;
+    private int head, size;
+    private long dropped;
+
+    public RingTimeline(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.data = new long[capacity * 2];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Blocks pushed out so far.
+    public long dropped() {
+        return dropped;
+    }
+
+    private int slot(int i) {
+        int s = head + i;
+        return s >= capacity ? s - capacity : s;
+    }
+
+    @Override
+    public int pid(int i) {
+        return (int) data[2 * slot(i)];
+    }
+
+    @Override
+    public int start(int i) {
+        return (int) (data[2 * slot(i) + 1] >> 32);
+    }
+
+    @Override
+    public int end(int i) {
+        return (int) data[2 * slot(i) + 1];
+    }
+
+    public void add(int pid, int start, int end) {
+        int s;
+        if (size == capacity) {
+            s = head;
+            head = slot(1);
+            dropped++;
+        } else {
+            s = slot(size++);
+        }
+        data[2 * s] = pid;
+        data[2 * s + 1] = ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    // Extends the last block when it belongs to the same pid and touches start.
+    public void append(int pid, int start, int end) {
+        if (size > 0 && pid(size - 1) == pid && end(size - 1) == start) {
+            int s = slot(size - 1);
+            data[2 * s + 1] = ((long) start(size - 1) << 32) | (end & 0xFFFFFFFFL);
+        } else {
+            add(pid, start, end);
+        }
+    }
+
+    public void clear() {
+        head = size = 0;
+        dropped = 0;
+    }
+}
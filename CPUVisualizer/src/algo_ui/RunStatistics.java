@@ -0,0 +1,195 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.Locale;
+
+// Single-pass statistics for one run, fed by the engine as a SimulationListener.
+// Memory is fixed no matter how many processes complete: each metric keeps
+// Welford running moments plus a log-linear histogram, and the CPU counters
+// only need the previous slice on each CPU.
+public class RunStatistics implements SimulationListener {
+    public final Metric waiting = new Metric();
+    public final Metric turnaround = new Metric();
+    public final Metric response = new Metric();
+
+    private long busy;
+    private long contextSwitches;
+    // Last pid per CPU, -1 before its first slice; grows to the highest CPU seen.
+    private int[] lastPid = {-1};
+    private int cpus = 1;
+    private int firstStart = Integer.MAX_VALUE;
+    private int firstArrival = Integer.MAX_VALUE;
+    private int lastEnd;
+
+    @Override
+    public void onSlice(int pid, int start, int end) {
+        onSlice(0, pid, start, end);
+    }
+
+    @Override
+    public void onSlice(int cpu, int pid, int start, int end) {
+        if (cpu >= lastPid.length) {
+            int old = lastPid.length;
+            lastPid = java.util.Arrays.copyOf(lastPid, Math.max(cpu + 1, old * 2));
+            java.util.Arrays.fill(lastPid, old, lastPid.length, -1);
+        }
+        cpus = Math.max(cpus, cpu + 1);
+        if (lastPid[cpu] >= 0 && pid != lastPid[cpu]) contextSwitches++;
+        lastPid[cpu] = pid;
+        busy += end - start;
+        firstStart = Math.min(firstStart, start);
+        lastEnd = Math.max(lastEnd, end);
+    }
+
+    @Override
+    public void onComplete(SchedulerLogic.Process p) {
+        complete(p.arrival, p.waiting, p.turnaround, p.response);
+    }
+
+    private void complete(int arrival, int wait, int tat, int resp) {
+        waiting.add(wait);
+        turnaround.add(tat);
+        response.add(resp);
+        firstArrival = Math.min(firstArrival, arrival);
+    }
+
+    // Statistics of a finished run, rebuilt from its lanes (one per CPU) and
+    // the workload's result columns.
+    public static RunStatistics of(BlockSource[] lanes, Workload w) {
+        RunStatistics s = new RunStatistics();
+        for (int cpu = 0; cpu < lanes.length; cpu++) {
+            BlockSource lane = lanes[cpu];
+            for (int i = 0; i < lane.size(); i++) s.onSlice(cpu, lane.pid(i), lane.start(i), lane.end(i));
+        }
+        for (int row = 0; row < w.size(); row++) {
+            s.complete(w.arrival[row], w.waiting[row], w.turnaround[row], w.response[row]);
+        }
+        return s;
+    }
+
+    public long completed() {
+        return turnaround.count();
+    }
+
+    // Time from the first arrival (or first slice, if earlier) to the last slice end.
+    public long span() {
+        int origin = Math.min(firstArrival, firstStart);
+        return origin == Integer.MAX_VALUE ? 0 : Math.max(0, (long) lastEnd - origin);
+    }
+
+    public int makespan() {
+        return lastEnd;
+    }
+
+    public long busyTime() {
+        return busy;
+    }
+
+    // Idle time summed over all CPUs.
+    public long idleTime() {
+        return Math.max(0, span() * cpus - busy);
+    }
+
+    // Dispatches of a different process than the one that ran the CPU's slice before.
+    public long contextSwitches() {
+        return contextSwitches;
+    }
+
+    // Busy share of all CPUs over the span.
+    public double utilization() {
+        long span = span();
+        return span == 0 ? 0 : (double) busy / ((double) span * cpus);
+    }
+
+    // Completed processes per time unit.
+    public double throughput() {
+        long span = span();
+        return span == 0 ? 0 : (double) completed() / span;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "Waiting p50/p90/p99/p99.9: %d/%d/%d/%d | Turnaround p99: %d | Response p99: %d | "
+                        + "CPU %.1f%% busy, idle %d, %d switches, %.4f jobs/unit",
+                waiting.percentile(0.5), waiting.percentile(0.9), waiting.percentile(0.99),
+                waiting.percentile(0.999), turnaround.percentile(0.99), response.percentile(0.99),
+                utilization() * 100, idleTime(), contextSwitches, throughput());
+    }
+
+    // Mean, variance, min/max and approximate percentiles of a non-negative int
+    // series. Values below 2^SUB_BITS are counted exactly; above that each
+    // power-of-two range is split into 2^(SUB_BITS-1) buckets, so a reported
+    // percentile is within 1/128 of the true value.
+    public static class Metric {
+        private static final int SUB_BITS = 8;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int HALF = SUB_COUNT >> 1;
+        private static final int BUCKETS = SUB_COUNT + (31 - SUB_BITS) * HALF;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private double mean, m2;
+        private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+        public void add(int value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            counts[bucketOf(Math.max(0, value))]++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double mean() {
+            return mean;
+        }
+
+        public double variance() {
+            return count < 2 ? 0 : m2 / (count - 1);
+        }
+
+        public double stddev() {
+            return Math.sqrt(variance());
+        }
+
+        public int min() {
+            return count == 0 ? 0 : min;
+        }
+
+        public int max() {
+            return count == 0 ? 0 : max;
+        }
+
+        // Smallest recorded value v such that at least q of the samples are <= v,
+        // rounded up to its bucket's upper edge and capped at max().
+        public int percentile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= rank) return (int) Math.max(min(), Math.min(max(), upperEdge(b)));
+            }
+            return max();
+        }
+
+        private static int bucketOf(int v) {
+            if (v < SUB_COUNT) return v;
+            int magnitude = 31 - Integer.numberOfLeadingZeros(v);
+            int shift = magnitude - (SUB_BITS - 1);
+            return SUB_COUNT + (magnitude - SUB_BITS) * HALF + ((v >> shift) - HALF);
+        }
+
+        private static long upperEdge(int b) {
+            if (b < SUB_COUNT) return b;
+            int magnitude = (b - SUB_COUNT) / HALF + SUB_BITS;
+            int sub = (b - SUB_COUNT) % HALF + HALF;
+            int shift = magnitude - (SUB_BITS - 1);
+            return ((long) (sub + 1) << shift) - 1;
+        }
+    }
+}
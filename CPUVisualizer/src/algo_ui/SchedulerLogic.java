@@ -6,6 +6,8 @@ public class SchedulerLogic {
 
     public static class Process {
         public int id, arrival, burst, remaining;
+        // -20..19; weights the process under CFS and EEVDF, ignored elsewhere.
+        public int nice;
         public int start = -1, completion = 0, waiting = 0, turnaround = 0, response = -1;
 
         public Process(int id, int arrival, int burst) {
@@ -16,61 +18,28 @@ public class SchedulerLogic {
         }
     }
 
-    public static List<GanttBlock> runFIFO(List<Process> processes) {
-        processes.sort(Comparator.comparingInt(p -> p.arrival));
-        List<GanttBlock> result = new ArrayList<>();
-        int time = 0;
+    // The run* methods without "Events" in their name, other than runFIFO and
+    // runSJF, are the original tick-by-tick engines, kept for
+    // LegacyEngineBenchmark; the Simulation header notes where the kernel's
+    // output differs from theirs. Everything else runs on the Simulation
+    // kernel through runPolicy.
 
-        for (Process p : processes) {
-            time = Math.max(time, p.arrival);
-            p.start = time;
-            p.response = time - p.arrival;
-            time += p.burst;
-            p.completion = time;
-            p.turnaround = p.completion - p.arrival;
-            p.waiting = p.turnaround - p.burst;
-            result.add(new GanttBlock(p.id, p.start, p.completion));
-        }
+    public static List<GanttBlock> runFIFO(List<Process> processes) {
+        return runFIFO(processes, SimulationListener.NONE);
+    }
 
-        return result;
+    public static List<GanttBlock> runFIFO(List<Process> processes, SimulationListener listener) {
+        return runPolicy(BuiltinPolicies.fcfs(), processes, listener);
     }
 
+    // Ready processes sit in a heap keyed on burst; ties fall back to the
+    // order they became ready, i.e. arrival time and then input order.
     public static List<GanttBlock> runSJF(List<Process> processes) {
-        List<GanttBlock> result = new ArrayList<>();
-        List<Process> queue = new ArrayList<>();
-        Set<Process> processed = new HashSet<>();
-        int time = 0;
-
-        processes.sort(Comparator.comparingInt(p -> p.arrival));
-
-        while (processed.size() < processes.size()) {
-            for (Process p : processes) {
-                if (p.arrival <= time && !queue.contains(p) && !processed.contains(p)) {
-                    queue.add(p);
-                }
-            }
-
-            if (queue.isEmpty()) {
-                time++;
-                continue;
-            }
-
-            queue.sort(Comparator.comparingInt(p -> p.burst));
-            Process p = queue.remove(0);
-
-            time = Math.max(time, p.arrival);
-            p.start = time;
-            p.response = time - p.arrival;
-            p.completion = time + p.burst;
-            p.turnaround = p.completion - p.arrival;
-            p.waiting = p.turnaround - p.burst;
-            result.add(new GanttBlock(p.id, p.start, p.completion));
-
-            processed.add(p);
-            time = p.completion;
-        }
+        return runSJF(processes, SimulationListener.NONE);
+    }
 
-        return result;
+    public static List<GanttBlock> runSJF(List<Process> processes, SimulationListener listener) {
+        return runPolicy(BuiltinPolicies.sjf(), processes, listener);
     }
 
     public static List<GanttBlock> runSRTF(List<Process> processes) {
@@ -123,6 +92,32 @@ public class SchedulerLogic {
         return result;
     }
 
+    // Same schedule as runSRTF, but time only stops at arrivals and completions.
+    // Ties on remaining time go to whoever entered the ready heap first, and the
+    // running process re-enters behind new arrivals, exactly like the tick loop.
+    // Back-to-back slices of one process are a single block.
+    public static List<GanttBlock> runSRTFEvents(List<Process> processes) {
+        return runSRTFEvents(processes, SimulationListener.NONE);
+    }
+
+    public static List<GanttBlock> runSRTFEvents(List<Process> processes, SimulationListener listener) {
+        return runPolicy(BuiltinPolicies.srtf(), processes, listener);
+    }
+
+    // Stable in-place sort on arrival; packs (arrival, index) into longs so large
+    // inputs sort as primitives instead of through a comparator.
+    static void sortByArrival(List<Process> processes) {
+        Process[] array = processes.toArray(new Process[0]);
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = ((long) array[i].arrival << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < array.length; i++) {
+            processes.set(i, array[(int) keys[i]]);
+        }
+    }
+
     private static int getMaxArrival(List<Process> processes) {
         int max = 0;
         for (Process p : processes) {
@@ -253,6 +248,73 @@ public class SchedulerLogic {
         return blocks;
     }
 
+    // Same schedule as runRoundRobin: arrivals come in through one cursor and
+    // are queued ahead of the process whose quantum just expired.
+    public static List<GanttBlock> runRoundRobinEvents(List<Process> processes, int quantum) {
+        return runRoundRobinEvents(processes, quantum, SimulationListener.NONE);
+    }
+
+    public static List<GanttBlock> runRoundRobinEvents(List<Process> processes, int quantum,
+                                                       SimulationListener listener) {
+        return runPolicy(BuiltinPolicies.rr(quantum), processes, listener);
+    }
+
+    // MLFQ with any number of levels, one FIFO per level in the kernel. Unlike
+    // runMLFQ, input is sorted by arrival first, so processes arriving during
+    // the same slice enter level 0 in arrival order.
+    public static List<GanttBlock> runMLFQEvents(List<Process> processes, int[] quantums) {
+        return runMLFQEvents(processes, quantums, SimulationListener.NONE);
+    }
+
+    public static List<GanttBlock> runMLFQEvents(List<Process> processes, int[] quantums,
+                                                 SimulationListener listener) {
+        return runPolicy(BuiltinPolicies.mlfq(quantums), processes, listener);
+    }
+
+    // Every registered algorithm, built-ins first (see Policies).
+    public static final String[] ALGORITHMS = Policies.names();
+
+    // Runs an algorithm by its selector name; quantum and levels only matter for
+    // those that use them (see PolicyProvider).
+    public static List<GanttBlock> run(String algorithm, List<Process> processes, int quantum, int levels) {
+        return run(algorithm, processes, quantum, levels, SimulationListener.NONE);
+    }
+
+    public static List<GanttBlock> run(String algorithm, List<Process> processes, int quantum, int levels,
+                                       SimulationListener listener) {
+        return runPolicy(Policies.get(algorithm).create(quantum, levels), processes, listener);
+    }
+
+    // Runs processes through the Simulation kernel and copies the results back.
+    // Like every engine, leaves processes sorted by arrival, ties in input order.
+    public static List<GanttBlock> runPolicy(Simulation.Policy policy, List<Process> processes,
+                                             SimulationListener listener) {
+        sortByArrival(processes);
+        Workload w = new Workload(processes.size());
+        for (Process p : processes) w.nice[w.add(p.id, p.arrival, p.burst)] = p.nice;
+        Simulation sim = new Simulation(w, policy);
+        sim.run(listener);
+        for (int row = 0; row < w.size(); row++) {
+            Process p = processes.get(row);
+            p.remaining = w.remaining[row];
+            p.start = w.start[row];
+            p.completion = w.completion[row];
+            p.waiting = w.waiting[row];
+            p.turnaround = w.turnaround[row];
+            p.response = w.response[row];
+        }
+        return sim.timeline().toBlocks();
+    }
+
+    // Quantum per level for the UI's MLFQ: the base quantum, growing by one per level.
+    public static int[] mlfqQuantums(int quantum, int levels) {
+        int[] quantums = new int[Math.max(1, levels)];
+        for (int i = 0; i < quantums.length; i++) {
+            quantums[i] = quantum + i;
+        }
+        return quantums;
+    }
+
     public static Map<String, Double> calculateAverages(List<Process> processes) {
         double totalWT = 0, totalTAT = 0, totalRT = 0;
 
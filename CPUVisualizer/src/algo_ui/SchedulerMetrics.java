@@ -0,0 +1,188 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+// The MXBean behind SchedulerMetricsMXBean and an Instrumentation sink.
+// Disabled by default so an unwatched session pays nothing; jconsole or
+// VisualVM can flip Enabled at run time, or start with -Dcpuvisualizer.metrics=true.
+public class SchedulerMetrics implements SchedulerMetricsMXBean, Instrumentation.Sink {
+    private volatile boolean enabled = Boolean.getBoolean("cpuvisualizer.metrics");
+
+    private long simulations;
+    private SimulationProbe last;
+    private long totalScheduleNanos, totalEvents, totalSlices, totalBlocks, totalAllocated;
+    private long repaints, lastRepaintNanos, maxRepaintNanos, totalRepaintNanos;
+    private int lastRepaintBlocks;
+
+    // Registers this bean with the platform MBean server; if that is not
+    // allowed the sink still works, it just cannot be seen over JMX.
+    void register() {
+        Jmx.register(this);
+    }
+
+    // Kept apart so javax.management is only loaded when the bean is published.
+    private static final class Jmx {
+        static void register(SchedulerMetrics metrics) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(metrics, new ObjectName("CPUVisualizer:type=SchedulerMetrics"));
+            } catch (JMException | SecurityException ignored) {
+                // e.g. already registered by another class loader
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public synchronized void simulation(SimulationProbe probe) {
+        simulations++;
+        last = probe;
+        totalScheduleNanos += probe.scheduleNanos();
+        totalEvents += probe.events();
+        totalSlices += probe.slices();
+        totalBlocks += probe.blocks();
+        totalAllocated += probe.allocatedBytes();
+    }
+
+    @Override
+    public synchronized void paint(long nanos, int blocks, int lanes) {
+        repaints++;
+        lastRepaintNanos = nanos;
+        maxRepaintNanos = Math.max(maxRepaintNanos, nanos);
+        totalRepaintNanos += nanos;
+        lastRepaintBlocks = blocks;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    @Override
+    public synchronized long getSimulations() {
+        return simulations;
+    }
+
+    @Override
+    public synchronized String getLastConfig() {
+        return last == null ? "" : last.config();
+    }
+
+    @Override
+    public synchronized int getLastProcesses() {
+        return last == null ? 0 : last.processes();
+    }
+
+    @Override
+    public synchronized double getLastParseMillis() {
+        return last == null ? 0 : millis(last.parseNanos());
+    }
+
+    @Override
+    public synchronized double getLastScheduleMillis() {
+        return last == null ? 0 : millis(last.scheduleNanos());
+    }
+
+    @Override
+    public synchronized double getLastTableMillis() {
+        return last == null ? 0 : millis(last.tableNanos());
+    }
+
+    @Override
+    public synchronized double getLastPaintMillis() {
+        return last == null ? 0 : millis(last.paintNanos());
+    }
+
+    @Override
+    public synchronized long getLastEvents() {
+        return last == null ? 0 : last.events();
+    }
+
+    @Override
+    public synchronized long getLastSlices() {
+        return last == null ? 0 : last.slices();
+    }
+
+    @Override
+    public synchronized long getLastBlocks() {
+        return last == null ? 0 : last.blocks();
+    }
+
+    @Override
+    public synchronized long getLastAllocatedBytes() {
+        return last == null ? 0 : last.allocatedBytes();
+    }
+
+    @Override
+    public synchronized int[] getLastPeakQueueDepth() {
+        return last == null ? new int[0] : last.peakQueueDepth();
+    }
+
+    @Override
+    public synchronized double getTotalScheduleMillis() {
+        return millis(totalScheduleNanos);
+    }
+
+    @Override
+    public synchronized long getTotalEvents() {
+        return totalEvents;
+    }
+
+    @Override
+    public synchronized long getTotalSlices() {
+        return totalSlices;
+    }
+
+    @Override
+    public synchronized long getTotalBlocks() {
+        return totalBlocks;
+    }
+
+    @Override
+    public synchronized long getTotalAllocatedBytes() {
+        return totalAllocated;
+    }
+
+    @Override
+    public synchronized long getRepaints() {
+        return repaints;
+    }
+
+    @Override
+    public synchronized double getLastRepaintMillis() {
+        return millis(lastRepaintNanos);
+    }
+
+    @Override
+    public synchronized double getMaxRepaintMillis() {
+        return millis(maxRepaintNanos);
+    }
+
+    @Override
+    public synchronized double getTotalRepaintMillis() {
+        return millis(totalRepaintNanos);
+    }
+
+    @Override
+    public synchronized int getLastRepaintBlocks() {
+        return lastRepaintBlocks;
+    }
+
+    @Override
+    public synchronized void reset() {
+        simulations = totalScheduleNanos = totalEvents = totalSlices = totalBlocks = totalAllocated = 0;
+        repaints = lastRepaintNanos = maxRepaintNanos = totalRepaintNanos = 0;
+        lastRepaintBlocks = 0;
+        last = null;
+    }
+}
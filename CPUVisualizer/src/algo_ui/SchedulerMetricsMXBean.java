@@ -0,0 +1,58 @@
+package CPUVisualizer.src.algo_ui;
+
+// JMX view of the Instrumentation counters, registered as
+// CPUVisualizer:type=SchedulerMetrics. "Last" attributes describe the most
+// recent simulation, "Total" ones every simulation since start or reset().
+// Times are in milliseconds.
+public interface SchedulerMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSimulations();
+
+    String getLastConfig();
+
+    int getLastProcesses();
+
+    double getLastParseMillis();
+
+    double getLastScheduleMillis();
+
+    double getLastTableMillis();
+
+    double getLastPaintMillis();
+
+    long getLastEvents();
+
+    long getLastSlices();
+
+    long getLastBlocks();
+
+    long getLastAllocatedBytes();
+
+    // One entry per MLFQ level, a single one for the other algorithms.
+    int[] getLastPeakQueueDepth();
+
+    double getTotalScheduleMillis();
+
+    long getTotalEvents();
+
+    long getTotalSlices();
+
+    long getTotalBlocks();
+
+    long getTotalAllocatedBytes();
+
+    long getRepaints();
+
+    double getLastRepaintMillis();
+
+    double getMaxRepaintMillis();
+
+    double getTotalRepaintMillis();
+
+    int getLastRepaintBlocks();
+
+    void reset();
+}
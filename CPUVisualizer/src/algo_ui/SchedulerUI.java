@@ -1,23 +1,38 @@
 package CPUVisualizer.src.algo_ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class SchedulerUI extends JFrame {
     private JComboBox<String> algorithmSelector, extensionSelector;
-    private JTextField quantumField, processCountField;
+    private JTextField quantumField, levelsField, processCountField, cpuField, migrationField, seedField;
+    private JTextField liveSourceField;
+    private JComboBox<String> balancingSelector, distributionSelector;
     private JSlider speedSlider;
     private JCheckBox stepMode;
     private JTable inputTable, outputTable;
+    private final WorkloadTableModel inputModel = WorkloadTableModel.input();
+    private final WorkloadTableModel outputModel = WorkloadTableModel.metrics();
     private JLabel avgMetricsLabel;
     private GanttChartPanel chartPanel = new GanttChartPanel();
     private JScrollPane chartScroll;
-    private List<SchedulerLogic.Process> currentProcesses = new ArrayList<>();
+    private JButton simulateBtn, cancelBtn, liveBtn;
+    private JProgressBar progressBar;
+    private SimulationTask running;
+    private LiveTask live;
+    // Last single-CPU run, kept so an edited workload can be re-simulated from a checkpoint.
+    private IncrementalScheduler incremental;
+    private final ResultCache resultCache = new ResultCache(Runtime.getRuntime().maxMemory() / 8);
+    // The finished run on the chart, for Save Trace, and the trace file it came from, if opened.
+    private ResultCache.Key shownKey;
+    private ResultCache.Entry shownRun;
+    private TraceFile openTrace;
 
     public SchedulerUI() {
         setTitle("CPU Scheduling Visualizer");
@@ -39,7 +54,7 @@ public class SchedulerUI extends JFrame {
         panel.setPreferredSize(new Dimension(300, 650));
         panel.setBorder(BorderFactory.createTitledBorder("Controls"));
 
-        algorithmSelector = new JComboBox<>(new String[]{"FCFS", "SJF", "SRTF", "RR", "MLFQ"});
+        algorithmSelector = new JComboBox<>(SchedulerLogic.ALGORITHMS);
         algorithmSelector.setMaximumSize(new Dimension(200, 25));
 
         extensionSelector = new JComboBox<>(new String[]{
@@ -49,6 +64,20 @@ public class SchedulerUI extends JFrame {
 
         quantumField = new JTextField("2");
         quantumField.setMaximumSize(new Dimension(100, 25));
+        quantumField.setToolTipText("RR and MLFQ time slice; CFS minimum granularity; EEVDF base slice");
+
+        levelsField = new JTextField("4");
+        levelsField.setMaximumSize(new Dimension(100, 25));
+        levelsField.setToolTipText("MLFQ queue levels; CFS processes per target latency (latency = quantum × levels)");
+
+        cpuField = new JTextField("1");
+        cpuField.setMaximumSize(new Dimension(100, 25));
+
+        balancingSelector = new JComboBox<>(new String[]{"Global queue", "Periodic balancing", "Work stealing"});
+        balancingSelector.setMaximumSize(new Dimension(200, 25));
+
+        migrationField = new JTextField("0");
+        migrationField.setMaximumSize(new Dimension(100, 25));
 
         processCountField = new JTextField("3");
         processCountField.setMaximumSize(new Dimension(100, 25));
@@ -57,59 +86,88 @@ public class SchedulerUI extends JFrame {
         stepMode = new JCheckBox("Enable Step-by-Step");
 
         JButton addRow = new JButton("➕ Add Process");
-        addRow.addActionListener(e -> {
-            DefaultTableModel model = (DefaultTableModel) inputTable.getModel();
-            model.addRow(new Object[]{"P" + model.getRowCount(), 0, 1});
-        });
+        addRow.addActionListener(e -> inputModel.addRow(inputModel.getRowCount(), 0, 1));
+
+        seedField = new JTextField("1");
+        seedField.setMaximumSize(new Dimension(100, 25));
+
+        distributionSelector = new JComboBox<>(WORKLOAD_PRESETS);
+        distributionSelector.setMaximumSize(new Dimension(200, 25));
 
         JButton generateRandomBtn = new JButton("🎲 Generate Random");
-generateRandomBtn.addActionListener(e -> {
-    int count = 3;
-    try {
-        count = Integer.parseInt(processCountField.getText());
-    } catch (NumberFormatException ignored) {}
+        generateRandomBtn.addActionListener(e -> generateWorkload(generateRandomBtn));
 
-    currentProcesses.clear();
-    DefaultTableModel model = (DefaultTableModel) inputTable.getModel();
-    model.setRowCount(0);
-    Random rand = new Random();
+        JButton importBtn = new JButton("📥 Import");
+        importBtn.addActionListener(e -> importWorkload(importBtn));
 
-    String selectedExt = (String) extensionSelector.getSelectedItem();
+        JButton exportBtn = new JButton("📤 Export");
+        exportBtn.addActionListener(e -> exportWorkload());
 
-    for (int i = 0; i < count; i++) {
-        int arrival = rand.nextInt(5);
-        int burst = 1 + rand.nextInt(9);
+        simulateBtn = new JButton("▶️ Simulate");
+        simulateBtn.addActionListener(e -> simulate());
 
-        currentProcesses.add(new SchedulerLogic.Process(i, arrival, burst));
-        model.addRow(new Object[]{"P" + i, arrival, burst});
-    }
+        cancelBtn = new JButton("⏹ Cancel");
+        cancelBtn.setEnabled(false);
+        cancelBtn.addActionListener(e -> {
+            if (running != null) running.cancel(true);
+            if (live != null) live.cancel(true);
+        });
 
-    JOptionPane.showMessageDialog(this,
-            "Generated " + count + " processes\nExtension used: " + selectedExt,
-            "Random Generator", JOptionPane.INFORMATION_MESSAGE);
-});
+        liveSourceField = new JTextField("generator");
+        liveSourceField.setMaximumSize(new Dimension(200, 25));
+        liveSourceField.setToolTipText("generator[:time units per second], tcp:PORT, or a file or named pipe to follow");
 
-        JButton simulateBtn = new JButton("▶️ Simulate");
-        simulateBtn.addActionListener(e -> simulate());
+        liveBtn = new JButton("📡 Go Live");
+        liveBtn.addActionListener(e -> toggleLive());
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Idle");
+        progressBar.setMaximumSize(new Dimension(200, 20));
+        progressBar.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        JButton sweepBtn = new JButton("📈 Sweep Quantum");
+        sweepBtn.addActionListener(e -> openSweep());
+
+        JButton compareBtn = new JButton("⚖ Compare All");
+        compareBtn.addActionListener(e -> openCompare());
 
         JButton resetBtn = new JButton("🔄 Reset");
         resetBtn.addActionListener(e -> {
-            ((DefaultTableModel) inputTable.getModel()).setRowCount(0);
-            ((DefaultTableModel) outputTable.getModel()).setRowCount(0);
+            if (running != null) running.cancel(true);
+            if (live != null) live.cancel(true);
+            inputModel.clear();
+            outputModel.clear();
             chartPanel.setBlocksInstant(new ArrayList<>());
+            closeTrace();
+            shownRun = null;
             avgMetricsLabel.setText("");
         });
 
         panel.add(new JLabel("Algorithm:"));         panel.add(algorithmSelector);
         panel.add(new JLabel("Time Quantum:"));       panel.add(quantumField);
+        panel.add(new JLabel("MLFQ Levels:"));        panel.add(levelsField);
+        panel.add(new JLabel("CPUs:"));               panel.add(cpuField);
+        panel.add(new JLabel("Load Balancing:"));     panel.add(balancingSelector);
+        panel.add(new JLabel("Migration Cost:"));     panel.add(migrationField);
         panel.add(new JLabel("Process Count:"));      panel.add(processCountField);
+        panel.add(new JLabel("Seed:"));               panel.add(seedField);
+        panel.add(new JLabel("Distribution:"));       panel.add(distributionSelector);
         panel.add(new JLabel("File Extension:"));     panel.add(extensionSelector);
+        panel.add(new JLabel("Live Source:"));        panel.add(liveSourceField);
         panel.add(new JLabel("Step Delay (ms):"));    panel.add(speedSlider);
         panel.add(stepMode);
         panel.add(Box.createVerticalStrut(10));
         panel.add(addRow);
         panel.add(generateRandomBtn);
+        panel.add(importBtn);
+        panel.add(exportBtn);
         panel.add(simulateBtn);
+        panel.add(cancelBtn);
+        panel.add(liveBtn);
+        panel.add(progressBar);
+        panel.add(sweepBtn);
+        panel.add(compareBtn);
         panel.add(resetBtn);
 
         return panel;
@@ -118,19 +176,35 @@ generateRandomBtn.addActionListener(e -> {
     private JPanel buildOutputPanel() {
         JPanel panel = new JPanel(new BorderLayout());
 
-        inputTable = new JTable(new DefaultTableModel(new Object[]{"PID", "Arrival", "Burst"}, 0));
-        outputTable = new JTable(new DefaultTableModel(new Object[]{
-                "PID", "Arrival", "Burst", "Start", "Completion", "TAT", "Waiting", "Response"
-        }, 0));
+        inputTable = buildTable(inputModel, new TableRowSorter<>(inputModel));
+        inputTable.setDefaultEditor(Integer.class, new IntCellEditor());
+        TableRowSorter<WorkloadTableModel> outputSorter = new TableRowSorter<>(outputModel);
+        outputTable = buildTable(outputModel, outputSorter);
 
         JScrollPane inputScroll = new JScrollPane(inputTable);
         inputScroll.setBorder(BorderFactory.createTitledBorder("Input Table"));
 
-        JScrollPane outputScroll = new JScrollPane(outputTable);
+        JTextField filterField = new JTextField();
+        filterField.setToolTipText("PID (e.g. P12) or a column test such as \"waiting > 10\"");
+        filterField.addActionListener(e -> {
+            try {
+                outputSorter.setRowFilter(outputModel.filter(filterField.getText()));
+                filterField.setBackground(UIManager.getColor("TextField.background"));
+            } catch (IllegalArgumentException ex) {
+                filterField.setBackground(new Color(255, 220, 220));
+            }
+        });
+        JPanel filterBar = new JPanel(new BorderLayout());
+        filterBar.add(new JLabel("Filter: "), BorderLayout.WEST);
+        filterBar.add(filterField, BorderLayout.CENTER);
+
+        JPanel outputScroll = new JPanel(new BorderLayout());
+        outputScroll.add(filterBar, BorderLayout.NORTH);
+        outputScroll.add(new JScrollPane(outputTable), BorderLayout.CENTER);
         outputScroll.setBorder(BorderFactory.createTitledBorder("Metrics"));
 
         chartScroll = new JScrollPane(chartPanel,
-                JScrollPane.VERTICAL_SCROLLBAR_NEVER,
+                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
                 JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS);
         chartScroll.setBorder(BorderFactory.createTitledBorder("Gantt Chart"));
 
@@ -142,7 +216,69 @@ generateRandomBtn.addActionListener(e -> {
         tables.add(inputScroll);
         tables.add(outputScroll);
 
+        JButton zoomInBtn = new JButton("🔍+");
+        zoomInBtn.addActionListener(e -> chartPanel.zoomIn());
+        JButton zoomOutBtn = new JButton("🔍−");
+        zoomOutBtn.addActionListener(e -> chartPanel.zoomOut());
+        JButton fitBtn = new JButton("Fit");
+        fitBtn.addActionListener(e -> chartPanel.zoomToFit());
+        JButton actualSizeBtn = new JButton("1:1");
+        actualSizeBtn.addActionListener(e -> chartPanel.zoomReset());
+
+        JButton playBtn = new JButton("⏯ Play/Pause");
+        playBtn.addActionListener(e -> {
+            if (chartPanel.isPlaying()) chartPanel.pause();
+            else chartPanel.play();
+        });
+        JComboBox<String> replaySpeed = new JComboBox<>(new String[]{"0.5x", "1x", "2x", "4x", "16x", "64x", "256x"});
+        replaySpeed.setSelectedItem("1x");
+        replaySpeed.addActionListener(e -> chartPanel.setSpeed(
+                Double.parseDouble(((String) replaySpeed.getSelectedItem()).replace("x", ""))));
+        JSlider replaySlider = new JSlider(0, 1, 1);
+        replaySlider.setPreferredSize(new Dimension(200, 20));
+        JLabel replayLabel = new JLabel("t = 0");
+
+        // Keep the slider and the replay cursor in step; seeks are O(log n) in the block count.
+        boolean[] syncing = {false};
+        chartPanel.addReplayListener(e -> {
+            syncing[0] = true;
+            replaySlider.setMaximum(Math.max(1, chartPanel.getEndTime()));
+            replaySlider.setValue(chartPanel.getReplayTime());
+            replayLabel.setText("t = " + chartPanel.getReplayTime());
+            syncing[0] = false;
+        });
+        replaySlider.addChangeListener(e -> {
+            if (!syncing[0]) {
+                chartPanel.pause();
+                chartPanel.seekToTime(replaySlider.getValue());
+            }
+        });
+
+        JButton saveTraceBtn = new JButton("💾 Save Trace");
+        saveTraceBtn.addActionListener(e -> saveTrace());
+        JButton openTraceBtn = new JButton("📂 Open Trace");
+        openTraceBtn.addActionListener(e -> openTrace());
+        JButton exportImageBtn = new JButton("🖼 Export Image");
+        exportImageBtn.addActionListener(e -> exportImage());
+
+        JPanel zoomBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        zoomBar.add(zoomInBtn);
+        zoomBar.add(zoomOutBtn);
+        zoomBar.add(fitBtn);
+        zoomBar.add(actualSizeBtn);
+        zoomBar.add(new JLabel("Ctrl + wheel zooms"));
+        zoomBar.add(Box.createHorizontalStrut(12));
+        zoomBar.add(playBtn);
+        zoomBar.add(replaySpeed);
+        zoomBar.add(replaySlider);
+        zoomBar.add(replayLabel);
+        zoomBar.add(Box.createHorizontalStrut(12));
+        zoomBar.add(saveTraceBtn);
+        zoomBar.add(openTraceBtn);
+        zoomBar.add(exportImageBtn);
+
         JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(zoomBar, BorderLayout.NORTH);
         bottomPanel.add(chartScroll, BorderLayout.CENTER);
         bottomPanel.add(avgMetricsLabel, BorderLayout.SOUTH);
 
@@ -154,18 +290,193 @@ generateRandomBtn.addActionListener(e -> {
         return panel;
     }
 
-    private void simulate() {
-        List<SchedulerLogic.Process> clones = new ArrayList<>();
-        DefaultTableModel model = (DefaultTableModel) inputTable.getModel();
-        for (int i = 0; i < model.getRowCount(); i++) {
-            try {
-                String pidLabel = model.getValueAt(i, 0).toString();
-                int pid = Integer.parseInt(pidLabel.replaceAll("[^0-9]", ""));
-                int arrival = Integer.parseInt(model.getValueAt(i, 1).toString());
-                int burst = Integer.parseInt(model.getValueAt(i, 2).toString());
-                clones.add(new SchedulerLogic.Process(pid, arrival, burst));
-            } catch (Exception ignored) {}
+    // Sortable table over a WorkloadTableModel; PIDs are shown as "P<n>" but sort numerically.
+    private static JTable buildTable(WorkloadTableModel model, TableRowSorter<WorkloadTableModel> sorter) {
+        JTable table = new JTable(model);
+        table.setRowSorter(sorter);
+        table.getColumnModel().getColumn(0).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value == null ? "" : "P" + value);
+            }
+        });
+        return table;
+    }
+
+    // Input cells are validated as they are edited, so this is just a copy.
+    private List<SchedulerLogic.Process> readInputProcesses() {
+        if (inputTable.isEditing()) inputTable.getCellEditor().stopCellEditing();
+        return inputModel.getWorkload().toProcesses();
+    }
+
+    private void openSweep() {
+        List<SchedulerLogic.Process> processes = readInputProcesses();
+        if (processes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No processes available for the sweep.");
+            return;
+        }
+        new SweepDialog(this, inputModel.getWorkload().copy(), resultCache).setVisible(true);
+    }
+
+    // Runs every algorithm on the input table at once, with the current quantum and levels.
+    private void openCompare() {
+        List<SchedulerLogic.Process> processes = readInputProcesses();
+        if (processes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No processes available to compare.");
+            return;
+        }
+        int quantum, levels;
+        try {
+            quantum = Integer.parseInt(quantumField.getText().trim());
+            levels = Integer.parseInt(levelsField.getText().trim());
+        } catch (NumberFormatException e) {
+            quantum = 2;
+            levels = 4;
+        }
+        new CompareDialog(this, inputModel.getWorkload().copy(), quantum, levels, resultCache).setVisible(true);
+    }
+
+    private static final String[] WORKLOAD_PRESETS = {
+            "Uniform", "Poisson / exponential", "Poisson / Pareto", "Poisson / log-normal", "Diurnal / Pareto"
+    };
+
+    // Fills the input table from a WorkloadGenerator preset in the background;
+    // the same count, seed and preset always give the same processes.
+    private void generateWorkload(JButton button) {
+        int count;
+        long seed;
+        try {
+            count = Integer.parseInt(processCountField.getText().trim());
+            seed = Long.parseLong(seedField.getText().trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Process count and seed must be whole numbers.");
+            return;
+        }
+        WorkloadGenerator generator = selectedGenerator(seed);
+
+        button.setEnabled(false);
+        progressBar.setString("Generating " + count + " processes...");
+        new SwingWorker<Workload, Void>() {
+            @Override
+            protected Workload doInBackground() {
+                return generator.generate(Math.max(0, count));
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                try {
+                    inputModel.setWorkload(get());
+                    progressBar.setString(String.format("Generated %d processes (seed %d)", count, seed));
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Generation failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Generation failed: " + ex.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // The generator behind the selected Distribution preset.
+    private WorkloadGenerator selectedGenerator(long seed) {
+        WorkloadGenerator generator = new WorkloadGenerator().seed(seed);
+        switch (distributionSelector.getSelectedIndex()) {
+            case 0:
+                generator.arrivals(WorkloadGenerator.Arrivals.UNIFORM).bursts(WorkloadGenerator.Bursts.UNIFORM);
+                break;
+            case 2:
+                generator.bursts(WorkloadGenerator.Bursts.PARETO);
+                break;
+            case 3:
+                generator.bursts(WorkloadGenerator.Bursts.LOGNORMAL);
+                break;
+            case 4:
+                generator.arrivals(WorkloadGenerator.Arrivals.DIURNAL).bursts(WorkloadGenerator.Bursts.PARETO);
+                break;
+            default:
+                break;
         }
+        return generator;
+    }
+
+    private String selectedExtension() {
+        return (String) extensionSelector.getSelectedItem();
+    }
+
+    private JFileChooser workloadChooser() {
+        String ext = selectedExtension().substring(1);
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                ext.toUpperCase(java.util.Locale.ROOT) + " workloads", ext));
+        return chooser;
+    }
+
+    // Loads a workload in any format WorkloadIO reads (by the file's own
+    // extension) into the input table, off the event thread.
+    private void importWorkload(JButton button) {
+        JFileChooser chooser = workloadChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        button.setEnabled(false);
+        progressBar.setString("Importing " + file.getFileName() + "...");
+        new SwingWorker<Workload, Void>() {
+            @Override
+            protected Workload doInBackground() throws Exception {
+                return WorkloadIO.read(file);
+            }
+
+            @Override
+            protected void done() {
+                button.setEnabled(true);
+                try {
+                    Workload w = get();
+                    inputModel.setWorkload(w);
+                    progressBar.setString(String.format("Imported %d processes from %s", w.size(), file.getFileName()));
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Import failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Cannot import workload: " + ex.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // Writes the results table with its metrics when there is one, else the
+    // input workload. The selected extension is the default file type.
+    private void exportWorkload() {
+        Workload results = outputModel.getWorkload();
+        boolean metrics = results.size() > 0;
+        Workload w = metrics ? results : inputModel.getWorkload().copy();
+        String ext = selectedExtension();
+        JFileChooser chooser = workloadChooser();
+        chooser.setSelectedFile(new java.io.File((metrics ? "results" : "workload") + ext));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File chosen = chooser.getSelectedFile();
+        if (!chosen.getName().contains(".")) chosen = new java.io.File(chosen.getPath() + ext);
+        java.nio.file.Path file = chosen.toPath();
+        progressBar.setString("Exporting " + file.getFileName() + "...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                WorkloadIO.write(file, w, metrics);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    progressBar.setString(String.format("Exported %d processes to %s", w.size(), file.getFileName()));
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Export failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Cannot export workload: " + ex.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    private void simulate() {
+        long parseStart = System.nanoTime();
+        List<SchedulerLogic.Process> clones = readInputProcesses();
+        long parseNanos = System.nanoTime() - parseStart;
 
         if (clones.isEmpty()) {
             JOptionPane.showMessageDialog(this, "No processes available for simulation.");
@@ -179,58 +490,564 @@ generateRandomBtn.addActionListener(e -> {
             quantum = 2;
         }
 
-        List<GanttBlock> blocks = new ArrayList<>();
+        int levels;
+        try {
+            levels = Integer.parseInt(levelsField.getText());
+        } catch (NumberFormatException e) {
+            levels = 4;
+        }
+
+        MultiCoreScheduler multiCore = null;
+        try {
+            int cpus = Integer.parseInt(cpuField.getText().trim());
+            if (cpus > 1) {
+                multiCore = new MultiCoreScheduler(cpus,
+                        MultiCoreScheduler.Balancing.values()[balancingSelector.getSelectedIndex()])
+                        .migrationCost(Integer.parseInt(migrationField.getText().trim()));
+            }
+        } catch (NumberFormatException ignored) {}
+
         String selectedAlgo = (String) algorithmSelector.getSelectedItem();
+        if (multiCore != null && !MultiCoreScheduler.supports(selectedAlgo)) {
+            JOptionPane.showMessageDialog(this, selectedAlgo + " runs on one CPU only; set CPUs to 1.");
+            return;
+        }
+        if (multiCore == null && (incremental == null || !incremental.matches(selectedAlgo, quantum, levels))) {
+            incremental = new IncrementalScheduler(selectedAlgo, quantum, levels);
+        }
+        chartPanel.setAnimationDelay(speedSlider.getValue());
 
-        switch (selectedAlgo) {
-            case "FCFS":  blocks = SchedulerLogic.runFIFO(clones); chartPanel.setStyle(GanttChartPanel.Style.FCFS); break;
-            case "SJF":   blocks = SchedulerLogic.runSJF(clones);  chartPanel.setStyle(GanttChartPanel.Style.SJF); break;
-            case "SRTF":  blocks = SchedulerLogic.runSRTF(clones); chartPanel.setStyle(GanttChartPanel.Style.SRTF); break;
-            case "RR":    blocks = SchedulerLogic.runRoundRobin(clones, quantum); chartPanel.setStyle(GanttChartPanel.Style.RR); break;
-            case "MLFQ":  blocks = SchedulerLogic.runMLFQ(clones, new int[]{quantum, quantum + 1, quantum + 2, quantum + 3}); chartPanel.setStyle(GanttChartPanel.Style.MLFQ); break;
+        ResultCache.Key key = ResultCache.key(inputModel.getWorkload(), selectedAlgo, quantum, levels, multiCore);
+        ResultCache.Entry cached = resultCache.get(key);
+        if (cached != null) {
+            showRun(key, cached, cached.results.toProcesses(), cached.statistics(), stepMode.isSelected(), null);
+            progressBar.setValue(100);
+            progressBar.setString("Cached · t = " + makespan(cached.lanes));
+            return;
         }
 
-        chartPanel.setAnimationDelay(speedSlider.getValue());
-        if (stepMode.isSelected()) {
-            chartPanel.animateBlocks(blocks);
-        } else {
-            chartPanel.setBlocksInstant(blocks);
+        chartPanel.beginStream();
+        outputModel.clear();
+        avgMetricsLabel.setText("");
+
+        simulateBtn.setEnabled(false);
+        cancelBtn.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString("t = 0");
+        SimulationProbe probe = Instrumentation.begin(key.config, clones.size());
+        if (probe != null) probe.parsed(parseNanos);
+        running = new SimulationTask(key, selectedAlgo, clones, quantum, levels, multiCore,
+                multiCore == null ? incremental : null, stepMode.isSelected(), probe);
+        running.execute();
+    }
+
+    // Chunk handed from the engine thread to the EDT: the slices and the
+    // completed processes (as copies) since the previous chunk.
+    private static class Batch {
+        final List<GanttBlock> blocks = new ArrayList<>();
+        final List<SchedulerLogic.Process> completed = new ArrayList<>();
+        int time;
+    }
+
+    // Runs one engine on a background thread. Slices are batched and published
+    // every PUBLISH_NANOS so the chart fills in while the run is still going;
+    // progress is simulated time over a lower bound on the makespan. Multi-core
+    // runs stream progress and metrics only; their lanes are drawn at the end.
+    // Single-CPU runs go through an IncrementalScheduler, which only streams
+    // the part it actually re-simulates.
+    private class SimulationTask extends SwingWorker<Timeline[], Batch> implements SimulationListener {
+        private static final long PUBLISH_NANOS = 50_000_000L;
+
+        private final ResultCache.Key key;
+        private final String algorithm;
+        private final List<SchedulerLogic.Process> processes;
+        private final int quantum, levels;
+        private final MultiCoreScheduler multiCore;
+        private final IncrementalScheduler incremental;
+        private final boolean animate;
+        private final long expectedEnd;
+        private final int total;
+        // Null unless Instrumentation is on; the engine then reports through it.
+        private final SimulationProbe probe;
+        private final SimulationListener listener;
+
+        // Engine thread only.
+        private Batch pending = new Batch();
+        private long lastPublish = System.nanoTime();
+
+        // Updated on the engine thread, read in done() once the run has ended.
+        private RunStatistics stats = new RunStatistics();
+        private List<SchedulerLogic.Process> results;
+        private String reuse = "";
+
+        // EDT only.
+        private final List<SchedulerLogic.Process> finished = new ArrayList<>();
+        private int reachedTime;
+
+        SimulationTask(ResultCache.Key key, String algorithm, List<SchedulerLogic.Process> processes, int quantum, int levels,
+                       MultiCoreScheduler multiCore, IncrementalScheduler incremental, boolean animate,
+                       SimulationProbe probe) {
+            this.key = key;
+            this.algorithm = algorithm;
+            this.processes = processes;
+            this.quantum = quantum;
+            this.levels = levels;
+            this.multiCore = multiCore;
+            this.incremental = incremental;
+            this.results = processes;
+            this.animate = animate;
+            this.total = processes.size();
+            this.probe = probe;
+            this.listener = probe == null ? this : probe.wrap(this);
+
+            long firstArrival = Long.MAX_VALUE, lastArrival = 0, work = 0;
+            for (SchedulerLogic.Process p : processes) {
+                firstArrival = Math.min(firstArrival, p.arrival);
+                lastArrival = Math.max(lastArrival, p.arrival);
+                work += p.burst;
+            }
+            int cpus = multiCore == null ? 1 : multiCore.cpus();
+            expectedEnd = Math.max(1, Math.max(lastArrival, firstArrival + work / cpus));
+        }
+
+        @Override
+        protected Timeline[] doInBackground() {
+            if (probe != null) probe.beginSchedule();
+            Timeline[] lanes;
+            if (incremental != null) {
+                lanes = new Timeline[]{runIncremental()};
+            } else if (multiCore == null) {
+                lanes = new Timeline[]{Timeline.of(SchedulerLogic.run(algorithm, processes, quantum, levels,
+                        listener))};
+            } else {
+                lanes = multiCore.run(algorithm, processes, quantum, levels, listener).lanes;
+            }
+            if (probe != null) {
+                long blocks = 0;
+                for (Timeline lane : lanes) blocks += lane.size();
+                probe.endSchedule(blocks);
+            }
+            flush();
+            return lanes;
+        }
+
+        // A rerun only reports the slices it simulates, so the statistics are
+        // rebuilt from the finished timeline and columns instead.
+        private Timeline runIncremental() {
+            Workload w = Workload.of(processes);
+            Timeline timeline;
+            synchronized (incremental) {
+                timeline = incremental.rerun(w, listener);
+                if (incremental.resumedAt() >= 0) {
+                    reuse = incremental.convergedAt() >= 0
+                            ? String.format(" · resumed at t = %d, reused after t = %d",
+                                    incremental.resumedAt(), incremental.convergedAt())
+                            : String.format(" · resumed at t = %d", incremental.resumedAt());
+                }
+            }
+            results = w.toProcesses();
+            stats = RunStatistics.of(new Timeline[]{timeline}, w);
+            return timeline;
+        }
+
+        @Override
+        public void onSlice(int pid, int start, int end) {
+            onSlice(0, pid, start, end);
+        }
+
+        @Override
+        public void onSlice(int cpu, int pid, int start, int end) {
+            stats.onSlice(cpu, pid, start, end);
+            if (multiCore == null) pending.blocks.add(new GanttBlock(pid, start, end));
+            pending.time = Math.max(pending.time, end);
+            if (System.nanoTime() - lastPublish >= PUBLISH_NANOS) flush();
+        }
+
+        @Override
+        public void onComplete(SchedulerLogic.Process p) {
+            stats.onComplete(p);
+            SchedulerLogic.Process copy = new SchedulerLogic.Process(p.id, p.arrival, p.burst);
+            copy.remaining = 0;
+            copy.start = p.start;
+            copy.completion = p.completion;
+            copy.turnaround = p.turnaround;
+            copy.waiting = p.waiting;
+            copy.response = p.response;
+            pending.completed.add(copy);
+        }
+
+        private void flush() {
+            lastPublish = System.nanoTime();
+            if (pending.blocks.isEmpty() && pending.completed.isEmpty()) return;
+            publish(pending);
+            setProgress((int) Math.min(100, pending.time * 100L / expectedEnd));
+            int time = pending.time;
+            pending = new Batch();
+            pending.time = time;
+        }
+
+        @Override
+        protected void process(List<Batch> chunks) {
+            if (isCancelled()) return;
+            for (Batch b : chunks) {
+                chartPanel.appendBlocks(b.blocks);
+                finished.addAll(b.completed);
+                reachedTime = Math.max(reachedTime, b.time);
+            }
+            progressBar.setValue(getProgress());
+            progressBar.setString(String.format("t = %d · %d/%d done", reachedTime, finished.size(), total));
+        }
+
+        @Override
+        protected void done() {
+            if (running == this) running = null;
+            simulateBtn.setEnabled(true);
+            cancelBtn.setEnabled(false);
+
+            if (isCancelled()) {
+                // Keep what was streamed so far and show metrics for the processes that finished.
+                progressBar.setString(String.format("Cancelled at t = %d", reachedTime));
+                updateOutputTable(finished);
+                avgMetricsLabel.setText(finished.isEmpty()
+                        ? "Cancelled before any process finished"
+                        : "Partial (" + finished.size() + "/" + total + " finished) — " + averagesText(finished));
+                Instrumentation.end(probe);
+                return;
+            }
+
+            Timeline[] lanes;
+            try {
+                lanes = get();
+            } catch (InterruptedException | ExecutionException ex) {
+                Instrumentation.end(probe);
+                progressBar.setString("Failed");
+                JOptionPane.showMessageDialog(SchedulerUI.this, "Simulation failed: " + ex.getCause());
+                return;
+            }
+            progressBar.setValue(100);
+            progressBar.setString("Done · t = " + stats.makespan() + reuse);
+
+            // Swap the streamed preview for the engine's own blocks.
+            ResultCache.Entry entry = new ResultCache.Entry(lanes, Workload.of(results));
+            resultCache.put(key, entry);
+            showRun(key, entry, results, stats, animate, probe);
         }
+    }
+
+    // Blocks a live chart keeps; older ones are dropped as the feed goes on.
+    private static final int LIVE_BLOCKS = 1 << 16;
 
-        updateOutputTable(clones);
-        showAverages(clones);
+    // Starts scheduling the Live Source with the selected algorithm, or
+    // stops the feed that is running.
+    private void toggleLive() {
+        if (live != null) {
+            live.scheduler.stop();
+            liveBtn.setEnabled(false);
+            progressBar.setString("Stopping · finishing the processes already in...");
+            return;
+        }
+        int quantum, levels;
+        long seed;
+        try {
+            quantum = Integer.parseInt(quantumField.getText().trim());
+            levels = Integer.parseInt(levelsField.getText().trim());
+        } catch (NumberFormatException e) {
+            quantum = 2;
+            levels = 4;
+        }
+        try {
+            seed = Long.parseLong(seedField.getText().trim());
+        } catch (NumberFormatException e) {
+            seed = 1;
+        }
+        String algorithm = (String) algorithmSelector.getSelectedItem();
+        ProcessSource source;
+        try {
+            source = ProcessSources.of(liveSourceField.getText(), selectedGenerator(seed));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+
+        if (running != null) running.cancel(true);
+        closeTrace();
+        shownRun = null;
+        chartPanel.beginLive(LIVE_BLOCKS);
+        outputModel.clear();
+        avgMetricsLabel.setText("");
+        simulateBtn.setEnabled(false);
+        cancelBtn.setEnabled(true);
+        liveBtn.setText("⏹ Stop Live");
+        progressBar.setValue(0);
+        progressBar.setString("Waiting for " + liveSourceField.getText().trim() + "...");
+        live = new LiveTask(new OnlineScheduler(algorithm, quantum, levels), source);
+        live.execute();
     }
 
-    private void updateOutputTable(List<SchedulerLogic.Process> processes) {
-    DefaultTableModel model = new DefaultTableModel(new Object[]{
-            "PID", "Arrival", "Burst", "Start", "Completion", "TAT", "Waiting", "Response"
-    }, 0);
-
-    for (SchedulerLogic.Process p : processes) {
-        model.addRow(new Object[]{
-                "P" + p.id,
-                p.arrival,
-                p.burst,
-                p.start,
-                p.completion,
-                p.turnaround,
-                p.waiting,
-                p.response
-        });
+    // Runs an OnlineScheduler until its feed ends or is stopped. The engine
+    // thread collects slices into a ring no bigger than the chart's and sums
+    // the finished processes' metrics; a timer hands both to the EDT, so
+    // nothing here grows with the length of the feed. Live runs use one CPU.
+    private class LiveTask extends SwingWorker<Void, Void> implements SimulationListener {
+        private final OnlineScheduler scheduler;
+        private final ProcessSource source;
+        private final javax.swing.Timer refresh = new javax.swing.Timer(50, e -> refresh());
+
+        // Guarded by this; filled on the engine thread, drained by refresh().
+        private RingTimeline pending = new RingTimeline(LIVE_BLOCKS);
+        private long finished, waiting, turnaround, response;
+
+        // EDT only.
+        private RingTimeline spare = new RingTimeline(LIVE_BLOCKS);
+
+        LiveTask(OnlineScheduler scheduler, ProcessSource source) {
+            this.scheduler = scheduler;
+            this.source = source;
+            refresh.start();
+        }
+
+        @Override
+        protected Void doInBackground() {
+            scheduler.run(source, this);
+            return null;
+        }
+
+        @Override
+        public synchronized void onSlice(int pid, int start, int end) {
+            pending.append(pid, start, end);
+        }
+
+        @Override
+        public synchronized void onComplete(SchedulerLogic.Process p) {
+            finished++;
+            waiting += p.waiting;
+            turnaround += p.turnaround;
+            response += p.response;
+        }
+
+        private void refresh() {
+            RingTimeline batch;
+            long done, w, t, r;
+            synchronized (this) {
+                batch = pending;
+                pending = spare;
+                done = finished;
+                w = waiting;
+                t = turnaround;
+                r = response;
+            }
+            chartPanel.appendLive(batch);
+            batch.clear();
+            spare = batch;
+            progressBar.setString(String.format("Live · t = %d · %d arrived · %d waiting or running",
+                    scheduler.time(), scheduler.arrived(), scheduler.backlog()));
+            if (done > 0) {
+                avgMetricsLabel.setText(String.format(
+                        "%d finished — Average Turnaround: %.2f | Average Waiting: %.2f | Average Response: %.2f",
+                        done, (double) t / done, (double) w / done, (double) r / done));
+            }
+        }
+
+        @Override
+        protected void done() {
+            refresh();
+            refresh.stop();
+            if (live == this) live = null;
+            simulateBtn.setEnabled(true);
+            cancelBtn.setEnabled(false);
+            liveBtn.setText("📡 Go Live");
+            liveBtn.setEnabled(true);
+            if (isCancelled()) {
+                scheduler.stop();
+                progressBar.setString(String.format("Live run cancelled at t = %d", scheduler.time()));
+                return;
+            }
+            try {
+                get();
+                progressBar.setString(String.format("Live run ended at t = %d · %d processes",
+                        scheduler.time(), scheduler.arrived()));
+            } catch (InterruptedException | ExecutionException ex) {
+                progressBar.setString("Live run failed");
+                JOptionPane.showMessageDialog(SchedulerUI.this, "Live run failed: " + ex.getCause());
+            }
+        }
+    }
+
+    // With a probe, the table updates are its table phase and the chart's
+    // next repaint its paint phase.
+    private void showRun(ResultCache.Key key, ResultCache.Entry run, List<SchedulerLogic.Process> results,
+                         RunStatistics stats, boolean animate, SimulationProbe probe) {
+        chartPanel.setLanes(run.lanes);
+        closeTrace();
+        shownKey = key;
+        shownRun = run;
+        if (animate) chartPanel.play();
+        long tableStart = System.nanoTime();
+        updateOutputTable(results);
+        showAverages(results);
+        if (probe != null) {
+            probe.tableBuilt(System.nanoTime() - tableStart);
+            Instrumentation.endAfterPaint(probe);
+        }
+        avgMetricsLabel.setToolTipText(stats.summary());
+        avgMetricsLabel.setText("<html><center>" + avgMetricsLabel.getText() + "<br>" + stats.summary()
+                + "</center></html>");
+    }
+
+    private void saveTrace() {
+        if (shownRun == null) {
+            JOptionPane.showMessageDialog(this, "Run a simulation first; only finished runs can be saved.");
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("run.trace"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        ResultCache.Key key = shownKey;
+        ResultCache.Entry run = shownRun;
+        progressBar.setString("Saving " + file.getFileName() + "...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                TraceFile.write(file, key, run.lanes, run.results);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    progressBar.setString("Saved " + file.getFileName());
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Save failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Cannot save trace: " + ex.getCause());
+                }
+            }
+        }.execute();
     }
 
-    outputTable.setModel(model);
+    // Writes the chart at the current zoom to a PNG or SVG file, whatever its
+    // length; GanttExport paints and writes it a tile at a time.
+    private void exportImage() {
+        if (chartPanel.getBlockCount() == 0) {
+            JOptionPane.showMessageDialog(this, "Nothing to export; run a simulation first.");
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("chart.png"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        GanttRenderer chart = chartPanel.exportSnapshot();
+        progressBar.setString("Exporting " + file.getFileName() + "...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                GanttExport.write(chart, file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    progressBar.setString("Exported " + file.getFileName());
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Export failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Cannot export chart: " + ex.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // Shows a saved trace straight from the file; only the results table is
+    // read onto the heap, and only up to MAX_TRACE_ROWS processes.
+    private static final int MAX_TRACE_ROWS = 20_000_000;
+
+    private void openTrace() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        if (running != null) running.cancel(true);
+        if (live != null) live.cancel(true);
+        progressBar.setString("Opening " + file.getFileName() + "...");
+        new SwingWorker<TraceFile, Void>() {
+            private Workload results;
+
+            @Override
+            protected TraceFile doInBackground() throws Exception {
+                TraceFile trace = TraceFile.open(file);
+                try {
+                    if (trace.processes() <= MAX_TRACE_ROWS) results = trace.readResults();
+                } catch (java.io.IOException | RuntimeException e) {
+                    trace.close();
+                    throw e;
+                }
+                return trace;
+            }
+
+            @Override
+            protected void done() {
+                TraceFile trace;
+                try {
+                    trace = get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    progressBar.setString("Open failed");
+                    JOptionPane.showMessageDialog(SchedulerUI.this, "Cannot open trace: " + ex.getCause());
+                    return;
+                }
+                chartPanel.setLanes(trace.lanes());
+                closeTrace();
+                openTrace = trace;
+                shownRun = null;
+                progressBar.setValue(100);
+                progressBar.setString(String.format("%s · %s · %d processes, %d blocks", file.getFileName(),
+                        trace.key().config, trace.processes(), trace.blocks()));
+                if (results != null) {
+                    List<SchedulerLogic.Process> processes = results.toProcesses();
+                    outputModel.setWorkload(results);
+                    showAverages(processes);
+                } else {
+                    outputModel.clear();
+                    avgMetricsLabel.setText("Too many processes to list; showing the timeline only");
+                }
+                avgMetricsLabel.setToolTipText(null);
+            }
+        }.execute();
+    }
+
+    private void closeTrace() {
+        if (openTrace == null) return;
+        try {
+            openTrace.close();
+        } catch (java.io.IOException ignored) {
+            // read-only; nothing to lose
+        }
+        openTrace = null;
+    }
+
+    private static int makespan(Timeline[] lanes) {
+        int end = 0;
+        for (Timeline lane : lanes) end = Math.max(end, lane.endTime());
+        return end;
+    }
+
+    private void updateOutputTable(List<SchedulerLogic.Process> processes) {
+    outputModel.setWorkload(Workload.of(processes));
 }
 
 // 🧩 Now outside of updateOutputTable
 private void showAverages(List<SchedulerLogic.Process> processes) {
+    avgMetricsLabel.setText(averagesText(processes));
+}
+
+private static String averagesText(List<SchedulerLogic.Process> processes) {
     Map<String, Double> avg = SchedulerLogic.calculateAverages(processes);
-    avgMetricsLabel.setText(String.format(
+    return String.format(
         "Average Turnaround: %.2f | Average Waiting: %.2f | Average Response: %.2f",
         avg.get("avgTurnaround"),
         avg.get("avgWaiting"),
         avg.get("avgResponse")
-    ));
+    );
 }
    // ));
 //}
@@ -0,0 +1,466 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.concurrent.CancellationException;
+
+// Resumable single-CPU scheduling kernel over a Workload, shared by every
+// algorithm. The kernel owns the clock, arrivals, idle time, slices, the
+// timeline and the per-process metrics; a Policy (see PolicyProvider) only
+// decides where a process is queued, which one runs next, how long its
+// slice is, and what happens after it. Preemption is a slice that ends at
+// the next arrival (untilArrival()), after which the policy picks again.
+//
+// The kernel keeps two kinds of ready queue for its policies: a heap keyed
+// on (key, tie) for push, and per-level FIFOs for pushBack, which cost O(1)
+// for algorithms that always queue at the back. Because the whole state is
+// the clock, the arrival cursor and these queues, it can be captured in a
+// Checkpoint and restored later. A policy may keep its own run queue
+// instead (FairPolicy); such runs cannot be resumed.
+//
+// Results land in the workload's columns and in timeline(). The schedules
+// and per-process metrics match the original tick-by-tick engines in
+// SchedulerLogic, but the blocks need not: SRTF merges back-to-back slices
+// of one process where runSRTF emits a block per time unit. The kernel also
+// takes rows in arrival order, whereas runMLFQ queues processes that arrive
+// during one slice in list order, so MLFQ only agrees on input sorted by
+// arrival.
+//
+// Online, the workload starts empty and rows are offered as they arrive. The
+// loop then only acts at times before the horizon, the latest arrival (or
+// advance()) seen, because another process may still arrive at the horizon
+// itself; a slice that runs past it is reported at once but only settled
+// (requeued or completed) once the horizon has caught up. Finished rows are
+// recycled, so memory follows the number of live processes, not the total.
+public class Simulation {
+    public interface Policy {
+        // Puts row on a ready queue with sim.push(row, key, tie) or
+        // sim.pushBack(row), or leaves it out (RR and SRTF never queue
+        // zero-length jobs). A policy uses one of the two, not both; one with
+        // its own run queue calls sim.queued(row) instead.
+        void enqueue(Simulation sim, int row);
+
+        // Takes the row to run next off the queue; only called while rows are
+        // queued. A policy with its own queue calls sim.dequeued(row) for it.
+        default int pick(Simulation sim) {
+            return sim.pop();
+        }
+
+        // Length of the slice row gets now.
+        int slice(Simulation sim, int row);
+
+        // Called before a row that still has work is queued again.
+        default void afterSlice(Simulation sim, int row) {}
+
+        // Whether back-to-back slices of one pid become a single block.
+        default boolean mergeSlices() {
+            return false;
+        }
+
+        // Priority levels, for the per-level queue depth counters.
+        default int levels() {
+            return 1;
+        }
+
+        // Whether checkpoint() captures all the scheduling state, so a run
+        // can be restored from one. Not for policies with their own queue.
+        default boolean resumable() {
+            return true;
+        }
+    }
+
+    // A fresh policy for the named algorithm, through Policies.
+    static Policy policy(String algorithm, int quantum, int levels) {
+        return Policies.get(algorithm).create(quantum, levels);
+    }
+
+    // The processes, one row each; policies read e.g. w.remaining[row].
+    public final Workload w;
+    final Policy policy;
+    int[] order;           // rows in arrival order; online, from cursor to orderSize are yet to arrive
+    final int[] position;  // row -> index in order; offline only
+    int[] level;           // queue level per row, for pushBack and the depth counters
+    private final IndexHeap ready;
+    // pushBack queues: one ring buffer per level, the levels with rows in them,
+    // and the number of rows over all levels.
+    private final int[][] fifo;
+    private final int[] fifoHead, fifoSize;
+    private final java.util.BitSet fifoLevels = new java.util.BitSet();
+    private int fifoRows;
+    // Rows queued per level and the most there have been; rows keep their
+    // level while queued, so pop can find which count to lower.
+    private final int[] depth, peakDepth;
+    private int queued;
+    private Timeline timeline = new Timeline();
+    int time, cursor;
+    private int orderSize;
+    private long seq, steps, events;
+
+    // Online state: whether more rows may still be offered, the time before
+    // which every arrival is known, a row whose slice is not settled yet,
+    // and finished rows waiting for reuse.
+    private final boolean online;
+    private boolean open;
+    private int horizon, running = -1;
+    private int[] free;
+    private int freeCount;
+
+    Simulation(Workload w, Policy policy) {
+        this.w = w;
+        this.policy = policy;
+        this.order = w.arrivalOrder();
+        this.orderSize = order.length;
+        this.position = new int[w.size()];
+        for (int i = 0; i < order.length; i++) position[order[i]] = i;
+        this.level = new int[w.size()];
+        this.ready = new IndexHeap(Math.min(w.size(), 1 << 16));
+        this.depth = new int[policy.levels()];
+        this.peakDepth = new int[policy.levels()];
+        this.fifo = new int[policy.levels()][];
+        this.fifoHead = new int[policy.levels()];
+        this.fifoSize = new int[policy.levels()];
+        this.online = false;
+    }
+
+    // An online simulation: starts empty, takes rows through offer(), and
+    // only reports slices to its listener; there is no timeline().
+    Simulation(Policy policy) {
+        this.w = new Workload();
+        this.policy = policy;
+        this.order = new int[16];
+        this.position = null;
+        this.level = new int[16];
+        this.ready = new IndexHeap(16);
+        this.depth = new int[policy.levels()];
+        this.peakDepth = new int[policy.levels()];
+        this.fifo = new int[policy.levels()][];
+        this.fifoHead = new int[policy.levels()];
+        this.fifoSize = new int[policy.levels()];
+        this.timeline = null;
+        this.online = true;
+        this.open = true;
+        this.free = new int[16];
+    }
+
+    // Online only: a process arriving at arrival, or at the horizon if the
+    // loop may already have acted past that time.
+    void offer(int pid, int arrival, int burst) {
+        arrival = Math.max(arrival, horizon);
+        int row;
+        if (freeCount > 0) {
+            row = free[--freeCount];
+            w.set(row, pid, arrival, burst);
+        } else {
+            row = w.add(pid, arrival, burst);
+            if (level.length < w.id.length) level = java.util.Arrays.copyOf(level, w.id.length);
+        }
+        level[row] = 0;
+        if (orderSize == order.length) {
+            if (cursor > order.length / 2) {
+                System.arraycopy(order, cursor, order, 0, orderSize - cursor);
+                orderSize -= cursor;
+                cursor = 0;
+            } else {
+                order = java.util.Arrays.copyOf(order, order.length * 2);
+            }
+        }
+        order[orderSize++] = row;
+        horizon = arrival;
+    }
+
+    // Online only: no process will arrive before time.
+    void advance(int time) {
+        horizon = Math.max(horizon, time);
+    }
+
+    // Online only: nothing more will be offered, so the loop can run to the end.
+    void close() {
+        open = false;
+    }
+
+    // Processes offered and not finished yet.
+    int live() {
+        return w.size() - freeCount;
+    }
+
+    Timeline timeline() {
+        return timeline;
+    }
+
+    long steps() {
+        return steps;
+    }
+
+    // Loop iterations: slices plus jumps over idle time.
+    long events() {
+        return events;
+    }
+
+    int[] peakQueueDepth() {
+        return peakDepth.clone();
+    }
+
+    // Whether a known process has yet to arrive.
+    public boolean hasArrivals() {
+        return cursor < orderSize;
+    }
+
+    // When the next known process arrives; only while hasArrivals().
+    public int nextArrival() {
+        return w.arrival[order[cursor]];
+    }
+
+    // Time until a process may next arrive: the next known arrival or,
+    // online with none queued to arrive, the horizon. MAX_VALUE if none can.
+    // A preemptive policy ends its slices here.
+    public int untilArrival() {
+        if (hasArrivals()) return nextArrival() - time;
+        return open ? horizon - time : Integer.MAX_VALUE;
+    }
+
+    // Increasing numbers, for heap ties that keep the order rows were queued in.
+    public long nextSeq() {
+        return seq++;
+    }
+
+    // The current time.
+    public int time() {
+        return time;
+    }
+
+    // row's queue level, 0 unless the policy changes it; it must stay below
+    // the policy's levels().
+    public int level(int row) {
+        return level[row];
+    }
+
+    public void setLevel(int row, int level) {
+        this.level[row] = level;
+    }
+
+    // Queues row on the heap; pop() takes the smallest key, then tie.
+    public void push(int row, long key, long tie) {
+        ready.push(row, key, tie);
+        queued(row);
+    }
+
+    // Queues row behind the others on its level; pop() takes the front of
+    // the lowest level that has rows.
+    public void pushBack(int row) {
+        int l = level[row];
+        int[] ring = fifo[l];
+        int size = fifoSize[l];
+        if (ring == null || size == ring.length) {
+            int[] grown = new int[ring == null ? 16 : ring.length * 2];
+            for (int i = 0; i < size; i++) grown[i] = ring[(fifoHead[l] + i) & (ring.length - 1)];
+            fifo[l] = ring = grown;
+            fifoHead[l] = 0;
+        }
+        ring[(fifoHead[l] + size) & (ring.length - 1)] = row;
+        fifoSize[l] = size + 1;
+        fifoLevels.set(l);
+        fifoRows++;
+        queued(row);
+    }
+
+    // Takes the next row off the kernel's queues; Policy.pick's default.
+    public int pop() {
+        int row;
+        if (fifoRows > 0) {
+            int l = fifoLevels.nextSetBit(0);
+            int[] ring = fifo[l];
+            row = ring[fifoHead[l]];
+            fifoHead[l] = (fifoHead[l] + 1) & (ring.length - 1);
+            if (--fifoSize[l] == 0) fifoLevels.clear(l);
+            fifoRows--;
+        } else {
+            row = ready.pop();
+        }
+        dequeued(row);
+        return row;
+    }
+
+    // Queue depth bookkeeping, for policies with their own run queue: call
+    // queued when row joins it and dequeued when it leaves.
+    public void queued(int row) {
+        queued++;
+        int d = ++depth[level[row]];
+        if (d > peakDepth[level[row]]) peakDepth[level[row]] = d;
+    }
+
+    public void dequeued(int row) {
+        queued--;
+        depth[level[row]]--;
+    }
+
+    boolean isFinished() {
+        return queued == 0 && !hasArrivals() && running < 0;
+    }
+
+    // Whether every arrival up to now is known: always offline, online while
+    // the clock is before the horizon or once the feed is closed.
+    private boolean settled() {
+        return !open || time < horizon;
+    }
+
+    void run(SimulationListener listener) {
+        while (step(listener)) {
+            // keep going
+        }
+        listener.onFinish(events, peakQueueDepth());
+    }
+
+    // One scheduling decision: admit arrivals, run the best ready row for one
+    // slice, then queue it again or complete it. False once nothing is left,
+    // or online, once nothing more can happen until more rows are offered.
+    boolean step(SimulationListener listener) {
+        if (listener.isCancelled()) throw new CancellationException("Simulation cancelled");
+        if (running >= 0) {
+            if (!settled()) return false;
+            int row = running;
+            running = -1;
+            settle(row, listener);
+        }
+        if (!settled()) return false;
+        admit();
+        if (queued == 0) {
+            if (!hasArrivals()) return false;
+            time = nextArrival();
+            events++;
+            return true;
+        }
+
+        int row = policy.pick(this);
+        if (w.start[row] == -1) {
+            w.start[row] = time;
+            w.response[row] = time - w.arrival[row];
+        }
+        int exec = policy.slice(this, row);
+        if (timeline == null) {
+            // online: the listener keeps whatever it wants to show
+        } else if (policy.mergeSlices()) {
+            timeline.append(w.id[row], time, time + exec);
+        } else {
+            timeline.add(w.id[row], time, time + exec);
+        }
+        listener.onSlice(w.id[row], time, time + exec);
+        time += exec;
+        w.remaining[row] -= exec;
+        steps++;
+        events++;
+
+        if (settled()) settle(row, listener);
+        else running = row;
+        return true;
+    }
+
+    // After row's slice: admit what arrived meanwhile, then queue row again
+    // behind them or complete it.
+    private void settle(int row, SimulationListener listener) {
+        admit();
+        if (w.remaining[row] > 0) {
+            policy.afterSlice(this, row);
+            policy.enqueue(this, row);
+        } else {
+            w.completion[row] = time;
+            w.turnaround[row] = time - w.arrival[row];
+            w.waiting[row] = w.turnaround[row] - w.burst[row];
+            // The Process copy is only for listeners; most runs have none.
+            if (listener != SimulationListener.NONE) listener.onComplete(completed(row));
+            if (online) release(row);
+        }
+    }
+
+    private void admit() {
+        while (hasArrivals() && nextArrival() <= time) {
+            int row = order[cursor++];
+            int before = queued;
+            policy.enqueue(this, row);
+            // Online, a row the policy leaves out (a zero-length job) is done.
+            if (online && queued == before) release(row);
+        }
+    }
+
+    private void release(int row) {
+        if (freeCount == free.length) free = java.util.Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = row;
+    }
+
+    private SchedulerLogic.Process completed(int row) {
+        SchedulerLogic.Process p = new SchedulerLogic.Process(w.id[row], w.arrival[row], w.burst[row]);
+        p.remaining = 0;
+        p.start = w.start[row];
+        p.response = w.response[row];
+        p.completion = w.completion[row];
+        p.turnaround = w.turnaround[row];
+        p.waiting = w.waiting[row];
+        return p;
+    }
+
+    // Everything the loop needs to carry on from a step boundary. Only the
+    // queued rows are stored: rows before the cursor and not queued are done,
+    // rows from the cursor on have not arrived yet.
+    static class Checkpoint {
+        final int time, cursor, blocks, lastEnd;
+        final long steps;
+        final int[] rows, remaining, start, level;
+
+        Checkpoint(int time, int cursor, int blocks, int lastEnd, long steps,
+                   int[] rows, int[] remaining, int[] start, int[] level) {
+            this.time = time;
+            this.cursor = cursor;
+            this.blocks = blocks;
+            this.lastEnd = lastEnd;
+            this.steps = steps;
+            this.rows = rows;
+            this.remaining = remaining;
+            this.start = start;
+            this.level = level;
+        }
+    }
+
+    Checkpoint checkpoint() {
+        IndexHeap queue = ready.copy();
+        int m = fifoRows + queue.size();
+        int[] rows = new int[m], remaining = new int[m], start = new int[m], levels = new int[m];
+        int i = 0;
+        for (int l = fifoLevels.nextSetBit(0); l >= 0; l = fifoLevels.nextSetBit(l + 1)) {
+            for (int k = 0; k < fifoSize[l]; k++) rows[i++] = fifo[l][(fifoHead[l] + k) & (fifo[l].length - 1)];
+        }
+        while (!queue.isEmpty()) rows[i++] = queue.pop();
+        for (i = 0; i < m; i++) {
+            int row = rows[i];
+            remaining[i] = w.remaining[row];
+            start[i] = w.start[row];
+            levels[i] = level[row];
+        }
+        int blocks = timeline.size();
+        return new Checkpoint(time, cursor, blocks, blocks == 0 ? 0 : timeline.end(blocks - 1), steps,
+                rows, remaining, start, levels);
+    }
+
+    // Continues from c on the blocks in prefix, which must be the run that
+    // produced c. Queued rows go back in their old order with fresh sequence
+    // numbers, which keeps every later tie-break the same.
+    void restore(Checkpoint c, Timeline prefix) {
+        timeline = prefix;
+        timeline.truncate(c.blocks);
+        if (c.blocks > 0) timeline.setEnd(c.blocks - 1, c.lastEnd);
+        time = c.time;
+        cursor = c.cursor;
+        steps = c.steps;
+        seq = 0;
+        ready.clear();
+        java.util.Arrays.fill(fifoSize, 0);
+        fifoLevels.clear();
+        fifoRows = 0;
+        queued = 0;
+        java.util.Arrays.fill(depth, 0);
+        for (int i = 0; i < c.rows.length; i++) {
+            int row = c.rows[i];
+            w.remaining[row] = c.remaining[i];
+            w.start[row] = c.start[i];
+            w.response[row] = c.start[i] == -1 ? -1 : c.start[i] - w.arrival[row];
+            level[row] = c.level[i];
+            policy.enqueue(this, row);
+        }
+    }
+}
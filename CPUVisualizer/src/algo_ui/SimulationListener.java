@@ -0,0 +1,28 @@
+package CPUVisualizer.src.algo_ui;
+
+// Hooks the engines call while they run. Calls come from the thread running
+// the engine; returning true from isCancelled makes the engine stop with a
+// java.util.concurrent.CancellationException.
+public interface SimulationListener {
+    SimulationListener NONE = new SimulationListener() {};
+
+    // A process ran on the CPU from start to end.
+    default void onSlice(int pid, int start, int end) {}
+
+    // Same, from a multi-CPU run; single-CPU listeners can ignore the cpu.
+    default void onSlice(int cpu, int pid, int start, int end) {
+        onSlice(pid, start, end);
+    }
+
+    // A process finished; its metrics are final.
+    default void onComplete(SchedulerLogic.Process p) {}
+
+    // The engine finished: how many scheduling events its loop handled and the
+    // deepest each ready queue got, one entry per MLFQ level (a single entry
+    // for the other algorithms). Called once, after the last onComplete.
+    default void onFinish(long events, int[] peakQueueDepth) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
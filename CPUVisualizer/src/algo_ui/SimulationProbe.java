@@ -0,0 +1,143 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// What one simulation cost: wall time per phase (parse, schedule, table
+// model, paint), what the engine did, and what the scheduling thread
+// allocated. Callers time their phases and run the engine with wrap(listener)
+// so slices and the engine's onFinish counters are collected on the way
+// through. Probes only exist while Instrumentation has an enabled sink.
+public final class SimulationProbe implements SimulationListener {
+    private final String config;
+    private final int processes;
+    private long parseNanos, scheduleNanos, tableNanos, paintNanos;
+    private long events, slices, blocks, allocatedBytes;
+    private int[] peakQueueDepth = new int[0];
+
+    private SimulationListener delegate = NONE;
+    private long scheduleStart, allocatedStart;
+
+    SimulationProbe(String config, int processes) {
+        this.config = config;
+        this.processes = processes;
+    }
+
+    // Listener that counts into this probe and forwards everything to listener.
+    public SimulationListener wrap(SimulationListener listener) {
+        this.delegate = listener;
+        return this;
+    }
+
+    public void parsed(long nanos) {
+        parseNanos += nanos;
+    }
+
+    // Brackets the engine run on the thread that does it.
+    public void beginSchedule() {
+        allocatedStart = threadAllocatedBytes();
+        scheduleStart = System.nanoTime();
+    }
+
+    public void endSchedule(long blocksEmitted) {
+        scheduleNanos += System.nanoTime() - scheduleStart;
+        long allocated = threadAllocatedBytes();
+        if (allocated >= 0 && allocatedStart >= 0) allocatedBytes += allocated - allocatedStart;
+        blocks += blocksEmitted;
+    }
+
+    public void tableBuilt(long nanos) {
+        tableNanos += nanos;
+    }
+
+    void painted(long nanos) {
+        paintNanos += nanos;
+    }
+
+    // Bytes allocated so far by the current thread, or -1 where the JVM cannot tell.
+    private static long threadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    @Override
+    public void onSlice(int pid, int start, int end) {
+        slices++;
+        delegate.onSlice(pid, start, end);
+    }
+
+    @Override
+    public void onSlice(int cpu, int pid, int start, int end) {
+        slices++;
+        delegate.onSlice(cpu, pid, start, end);
+    }
+
+    @Override
+    public void onComplete(SchedulerLogic.Process p) {
+        delegate.onComplete(p);
+    }
+
+    @Override
+    public void onFinish(long events, int[] peakQueueDepth) {
+        this.events += events;
+        if (peakQueueDepth.length > this.peakQueueDepth.length) {
+            this.peakQueueDepth = java.util.Arrays.copyOf(this.peakQueueDepth, peakQueueDepth.length);
+        }
+        for (int l = 0; l < peakQueueDepth.length; l++) {
+            this.peakQueueDepth[l] = Math.max(this.peakQueueDepth[l], peakQueueDepth[l]);
+        }
+        delegate.onFinish(events, peakQueueDepth);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    public String config() {
+        return config;
+    }
+
+    public int processes() {
+        return processes;
+    }
+
+    public long parseNanos() {
+        return parseNanos;
+    }
+
+    public long scheduleNanos() {
+        return scheduleNanos;
+    }
+
+    public long tableNanos() {
+        return tableNanos;
+    }
+
+    public long paintNanos() {
+        return paintNanos;
+    }
+
+    public long events() {
+        return events;
+    }
+
+    public long slices() {
+        return slices;
+    }
+
+    public long blocks() {
+        return blocks;
+    }
+
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public int[] peakQueueDepth() {
+        return peakQueueDepth.clone();
+    }
+}
@@ -0,0 +1,90 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Average waiting/turnaround/response against quantum for one sweep series.
+// Pareto-optimal points are drawn as larger filled dots.
+public class SweepChartPanel extends JPanel {
+    private static final int MARGIN = 45;
+    private static final Font FONT = new Font("Arial", Font.PLAIN, 11);
+    private static final Color[] METRIC_COLORS = {
+            new Color(200, 60, 60), new Color(60, 110, 200), new Color(60, 160, 80)
+    };
+    private static final String[] METRIC_NAMES = {"Waiting", "Turnaround", "Response"};
+
+    private List<QuantumSweep.Result> series = new ArrayList<>();
+
+    public SweepChartPanel() {
+        setPreferredSize(new Dimension(640, 320));
+        setBackground(Color.WHITE);
+    }
+
+    public void setSeries(List<QuantumSweep.Result> results) {
+        this.series = new ArrayList<>(results);
+        series.sort((a, b) -> Integer.compare(a.quantum, b.quantum));
+        repaint();
+    }
+
+    private static double metric(QuantumSweep.Result r, int m) {
+        return m == 0 ? r.avgWaiting : m == 1 ? r.avgTurnaround : r.avgResponse;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (series.isEmpty()) return;
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setFont(FONT);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int minQ = series.get(0).quantum, maxQ = series.get(series.size() - 1).quantum;
+        double maxY = 1;
+        for (QuantumSweep.Result r : series) {
+            for (int m = 0; m < 3; m++) maxY = Math.max(maxY, metric(r, m));
+        }
+
+        int w = getWidth() - 2 * MARGIN, h = getHeight() - 2 * MARGIN;
+        g2.setColor(Color.BLACK);
+        g2.drawLine(MARGIN, MARGIN + h, MARGIN + w, MARGIN + h);
+        g2.drawLine(MARGIN, MARGIN, MARGIN, MARGIN + h);
+        g2.drawString("quantum", MARGIN + w - 45, MARGIN + h + 30);
+        g2.drawString(String.format("%.1f", maxY), 5, MARGIN + 4);
+        g2.drawString("0", MARGIN - 15, MARGIN + h + 4);
+
+        int labelStep = Math.max(1, (maxQ - minQ) / 10);
+        for (int q = minQ; q <= maxQ; q += labelStep) {
+            int x = xFor(q, minQ, maxQ, w);
+            g2.drawLine(x, MARGIN + h, x, MARGIN + h + 4);
+            g2.drawString(String.valueOf(q), x - 4, MARGIN + h + 16);
+        }
+
+        for (int m = 0; m < 3; m++) {
+            g2.setColor(METRIC_COLORS[m]);
+            int prevX = -1, prevY = -1;
+            for (QuantumSweep.Result r : series) {
+                int x = xFor(r.quantum, minQ, maxQ, w);
+                int y = MARGIN + h - (int) Math.round(metric(r, m) / maxY * h);
+                if (prevX >= 0) g2.drawLine(prevX, prevY, x, y);
+                if (r.pareto) {
+                    g2.fillOval(x - 4, y - 4, 8, 8);
+                } else {
+                    g2.drawOval(x - 2, y - 2, 4, 4);
+                }
+                prevX = x;
+                prevY = y;
+            }
+            g2.fillRect(MARGIN + 10 + m * 110, 8, 10, 10);
+            g2.drawString(METRIC_NAMES[m], MARGIN + 24 + m * 110, 17);
+        }
+        g2.setColor(Color.BLACK);
+        g2.drawString("● Pareto-optimal", MARGIN + 340, 17);
+    }
+
+    private static int xFor(int q, int minQ, int maxQ, int w) {
+        return maxQ == minQ ? MARGIN + w / 2 : MARGIN + (int) ((long) (q - minQ) * w / (maxQ - minQ));
+    }
+}
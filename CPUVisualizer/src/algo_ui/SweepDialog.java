@@ -0,0 +1,132 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Quantum/level sweep over the current input table, run in the background.
+public class SweepDialog extends JDialog {
+    private final Workload base;
+    private final ResultCache cache;
+    private final JTextField minField = new JTextField("1", 4);
+    private final JTextField maxField = new JTextField("20", 4);
+    private final JTextField levelsField = new JTextField("2,4,8", 8);
+    private final JCheckBox rrBox = new JCheckBox("RR", true);
+    private final JCheckBox mlfqBox = new JCheckBox("MLFQ", true);
+    private final JComboBox<String> seriesSelector = new JComboBox<>();
+    private final SweepChartPanel chart = new SweepChartPanel();
+    private final JTable paretoTable = new JTable();
+    private final JLabel status = new JLabel(" ");
+    private final Map<String, List<QuantumSweep.Result>> seriesByLabel = new LinkedHashMap<>();
+
+    public SweepDialog(Frame owner, Workload base, ResultCache cache) {
+        super(owner, "Quantum Sweep", false);
+        this.base = base;
+        this.cache = cache;
+
+        JButton runBtn = new JButton("Run Sweep");
+        runBtn.addActionListener(e -> runSweep(runBtn));
+        seriesSelector.addActionListener(e -> {
+            List<QuantumSweep.Result> s = seriesByLabel.get((String) seriesSelector.getSelectedItem());
+            if (s != null) chart.setSeries(s);
+        });
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Quantum from"));
+        controls.add(minField);
+        controls.add(new JLabel("to"));
+        controls.add(maxField);
+        controls.add(new JLabel("MLFQ levels"));
+        controls.add(levelsField);
+        controls.add(rrBox);
+        controls.add(mlfqBox);
+        controls.add(runBtn);
+        controls.add(new JLabel("Series:"));
+        controls.add(seriesSelector);
+
+        JScrollPane paretoScroll = new JScrollPane(paretoTable);
+        paretoScroll.setBorder(BorderFactory.createTitledBorder("Pareto-optimal settings"));
+        paretoScroll.setPreferredSize(new Dimension(640, 160));
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(controls, BorderLayout.NORTH);
+        content.add(chart, BorderLayout.CENTER);
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(paretoScroll, BorderLayout.CENTER);
+        south.add(status, BorderLayout.SOUTH);
+        content.add(south, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private void runSweep(JButton runBtn) {
+        int min, max;
+        int[] levels;
+        try {
+            min = Integer.parseInt(minField.getText().trim());
+            max = Integer.parseInt(maxField.getText().trim());
+            String[] parts = levelsField.getText().split(",");
+            levels = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) levels[i] = Integer.parseInt(parts[i].trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Quantum range and levels must be whole numbers.");
+            return;
+        }
+        boolean rr = rrBox.isSelected(), mlfq = mlfqBox.isSelected();
+
+        runBtn.setEnabled(false);
+        status.setText("Sweeping...");
+        long t0 = System.nanoTime();
+        new SwingWorker<List<QuantumSweep.Result>, Void>() {
+            @Override
+            protected List<QuantumSweep.Result> doInBackground() {
+                return QuantumSweep.run(base, min, max, levels, rr, mlfq, cache);
+            }
+
+            @Override
+            protected void done() {
+                runBtn.setEnabled(true);
+                try {
+                    showResults(get());
+                    status.setText(String.format("%d configurations in %d ms",
+                            countResults(), (System.nanoTime() - t0) / 1_000_000));
+                } catch (Exception ex) {
+                    status.setText("Sweep failed: " + ex.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private int countResults() {
+        int n = 0;
+        for (List<QuantumSweep.Result> s : seriesByLabel.values()) n += s.size();
+        return n;
+    }
+
+    private void showResults(List<QuantumSweep.Result> results) {
+        seriesByLabel.clear();
+        for (QuantumSweep.Result r : results) {
+            seriesByLabel.computeIfAbsent(r.label(), k -> new ArrayList<>()).add(r);
+        }
+        seriesSelector.setModel(new DefaultComboBoxModel<>(seriesByLabel.keySet().toArray(new String[0])));
+        if (!seriesByLabel.isEmpty()) seriesSelector.setSelectedIndex(0);
+
+        DefaultTableModel model = new DefaultTableModel(new Object[]{
+                "Algorithm", "Quantum", "Levels", "Avg Waiting", "Avg Turnaround", "Avg Response"
+        }, 0);
+        for (QuantumSweep.Result r : QuantumSweep.paretoFront(results)) {
+            model.addRow(new Object[]{
+                    r.algorithm, r.quantum, r.levels == 0 ? "-" : r.levels,
+                    String.format("%.2f", r.avgWaiting),
+                    String.format("%.2f", r.avgTurnaround),
+                    String.format("%.2f", r.avgResponse)
+            });
+        }
+        paretoTable.setModel(model);
+    }
+}
@@ -0,0 +1,131 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Gantt blocks packed two longs apiece: the pid, then start << 32 | end.
+public class Timeline implements BlockSource {
+    private long[] data;
+    private int size;
+
+    public Timeline() {
+        this(16);
+    }
+
+    public Timeline(int capacity) {
+        data = new long[Math.max(capacity, 1) * 2];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int pid(int i) {
+        return (int) data[2 * i];
+    }
+
+    @Override
+    public int start(int i) {
+        return (int) (data[2 * i + 1] >> 32);
+    }
+
+    @Override
+    public int end(int i) {
+        return (int) data[2 * i + 1];
+    }
+
+    @Override
+    public int endTime() {
+        return size == 0 ? 0 : end(size - 1);
+    }
+
+    public void add(int pid, int start, int end) {
+        if (2 * size == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[2 * size] = pid;
+        data[2 * size + 1] = pack(start, end);
+        size++;
+    }
+
+    // Extends the last block when it belongs to the same pid and touches start.
+    public void append(int pid, int start, int end) {
+        if (size > 0 && pid(size - 1) == pid && end(size - 1) == start) {
+            data[2 * size - 1] = pack(start(size - 1), end);
+        } else {
+            add(pid, start, end);
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Approximate heap taken by the blocks, spare capacity included.
+    long heapBytes() {
+        return 32 + 8L * data.length;
+    }
+
+    // Drops every block from index size on.
+    public void truncate(int size) {
+        this.size = Math.max(0, Math.min(this.size, size));
+    }
+
+    void setEnd(int i, int end) {
+        data[2 * i + 1] = pack(start(i), end);
+    }
+
+    public Timeline copy() {
+        Timeline t = new Timeline(size);
+        System.arraycopy(data, 0, t.data, 0, 2 * size);
+        t.size = size;
+        return t;
+    }
+
+    private static long pack(int start, int end) {
+        return ((long) start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    public static Timeline of(List<GanttBlock> blocks) {
+        Timeline t = new Timeline(blocks.size());
+        for (GanttBlock b : blocks) {
+            t.add(b.pid, b.start, b.end);
+        }
+        return t;
+    }
+
+    public List<GanttBlock> toBlocks() {
+        List<GanttBlock> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new GanttBlock(pid(i), start(i), end(i)));
+        }
+        return list;
+    }
+
+    // Read-only List view; each get() builds a throwaway GanttBlock.
+    public List<GanttBlock> asBlocks() {
+        return new BlockView();
+    }
+
+    private class BlockView extends AbstractList<GanttBlock> implements RandomAccess {
+        @Override
+        public GanttBlock get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+            return new GanttBlock(pid(i), start(i), end(i));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Mipmap of a BlockSource for zoomed-out painting. Level 0 cuts the timeline
+// into buckets of baseBucket time units (a power of two, picked so there are
+// about BLOCKS_PER_BUCKET blocks per bucket and at most about a million
+// buckets) and every higher level halves the count. Sizing by blocks rather
+// than by time span keeps a sparse lane's summary small; zoomed in past
+// level 0 the renderer draws the blocks themselves, a few per pixel.
+// Each bucket keeps its busy time and a dominant pid: the pid with the longest
+// run inside it, which approximates "most time" when a pid's share of a
+// bucket is split over several runs.
+class TimelineSummary {
+    static final int MAX_BASE_BUCKETS = 1 << 20;
+    static final int BLOCKS_PER_BUCKET = 16;
+
+    final int origin;
+    final int baseBucket;
+    // Block count of the source when this was built.
+    final int blocks;
+    private final List<int[]> pids = new ArrayList<>();
+    private final List<int[]> busy = new ArrayList<>();
+    private final List<int[]> weights = new ArrayList<>();
+
+    TimelineSummary(BlockSource source) {
+        int count = source.size();
+        blocks = count;
+        origin = count == 0 ? 0 : source.start(0);
+        long span = Math.max(1, (long) source.endTime() - origin);
+        int maxBuckets = Math.max(1, Math.min(MAX_BASE_BUCKETS, count / BLOCKS_PER_BUCKET));
+        int bucket = 1;
+        // Spans reach 2^32, so a lane of a few blocks could need a wider
+        // bucket than an int holds; a handful of 2^30 buckets will do.
+        while (span / bucket > maxBuckets && bucket < 1 << 30) bucket <<= 1;
+        baseBucket = bucket;
+
+        int buckets = (int) ((span + bucket - 1) / bucket);
+        int[] pid = new int[buckets], used = new int[buckets], weight = new int[buckets];
+        java.util.Arrays.fill(pid, -1);
+
+        int runBucket = -1, runPid = -1, runLength = 0, runEnd = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int p = source.pid(i), t = source.start(i), end = source.end(i);
+            while (t < end) {
+                int b = (int) (((long) t - origin) / bucket);
+                int segmentEnd = (int) Math.min(end, origin + (long) (b + 1) * bucket);
+                int length = segmentEnd - t;
+                used[b] += length;
+                if (b == runBucket && p == runPid && t == runEnd) {
+                    runLength += length;
+                } else {
+                    runBucket = b;
+                    runPid = p;
+                    runLength = length;
+                }
+                runEnd = segmentEnd;
+                if (runLength > weight[b]) {
+                    weight[b] = runLength;
+                    pid[b] = p;
+                }
+                t = segmentEnd;
+            }
+        }
+        addLevels(pid, used, weight);
+    }
+
+    // Rebuilds a summary from its level 0, e.g. as stored in a TraceFile.
+    TimelineSummary(int origin, int baseBucket, int blocks, int[] pid, int[] used, int[] weight) {
+        this.origin = origin;
+        this.baseBucket = baseBucket;
+        this.blocks = blocks;
+        addLevels(pid, used, weight);
+    }
+
+    private void addLevels(int[] pid, int[] used, int[] weight) {
+        pids.add(pid);
+        busy.add(used);
+        weights.add(weight);
+
+        while (pid.length > 1) {
+            int n = (pid.length + 1) / 2;
+            int[] upPid = new int[n], upBusy = new int[n], upWeight = new int[n];
+            for (int i = 0; i < n; i++) {
+                int a = 2 * i, b = a + 1;
+                upBusy[i] = used[a] + (b < used.length ? used[b] : 0);
+                if (b < pid.length && weight[b] > weight[a]) {
+                    upPid[i] = pid[b];
+                    upWeight[i] = weight[b];
+                } else {
+                    upPid[i] = pid[a];
+                    upWeight[i] = weight[a];
+                }
+            }
+            pid = upPid;
+            used = upBusy;
+            weight = upWeight;
+            pids.add(pid);
+            busy.add(used);
+            weights.add(weight);
+        }
+    }
+
+    int levels() {
+        return pids.size();
+    }
+
+    long bucketSize(int level) {
+        return (long) baseBucket << level;
+    }
+
+    int buckets(int level) {
+        return pids.get(level).length;
+    }
+
+    // Coarsest level whose buckets are no wider than unitsPerPixel, or -1 when
+    // even level 0 is too coarse and blocks should be drawn directly.
+    int levelFor(double unitsPerPixel) {
+        if (unitsPerPixel < baseBucket) return -1;
+        int level = 0;
+        while (level + 1 < levels() && bucketSize(level + 1) <= unitsPerPixel) level++;
+        return level;
+    }
+
+    int pid(int level, int bucket) {
+        return pids.get(level)[bucket];
+    }
+
+    int busy(int level, int bucket) {
+        return busy.get(level)[bucket];
+    }
+
+    int weight(int level, int bucket) {
+        return weights.get(level)[bucket];
+    }
+}
@@ -0,0 +1,461 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Saved run: the lanes of a timeline plus the result columns, read and
+// written through memory-mapped windows so neither side needs the whole file
+// on the heap.
+//
+// Layout (big-endian):
+//   header   magic, version, header size, workload fingerprint, process
+//            count, config (UTF-8), lane count, then per lane: block count,
+//            end time, offsets of its blocks, index and summary, and the
+//            summary's origin, bucket size and bucket count; then the
+//            offset of the results.
+//   blocks   per block three varints: start - previous end and
+//            pid - previous pid (both zigzag), then end - start.
+//   index    every GROUP blocks: file offset, previous end, previous pid,
+//            so any block is at most GROUP varint triples from a seek.
+//   summary  level 0 of the lane's TimelineSummary (pid, busy, weight),
+//            about one bucket per TimelineSummary.BLOCKS_PER_BUCKET blocks.
+//   results  per process: id, arrival, burst, start, completion, waiting,
+//            turnaround, response.
+//
+// Lanes decode one group at a time from the window that holds it, so an open
+// trace costs its summaries plus a few mapped windows however large it is.
+// Like Timeline, an open trace is meant for one thread (the EDT).
+public class TraceFile implements Closeable {
+    private static final int MAGIC = 0x53565452; // "SVTR"
+    private static final int VERSION = 1;
+    static final int GROUP = 256;
+    private static final int INDEX_ENTRY = 16;
+    private static final int LANE_ENTRY = 44;
+    private static final int RESULT_ROW = 32;
+    // Read windows overlap by more than one group's bytes (3 varints of at
+    // most 5 bytes per block), so a group never straddles two windows.
+    private static final long WINDOW = 1L << 26;
+    private static final long OVERLAP = GROUP * 16L;
+    private static final int MAX_WINDOWS = 16;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Map<Long, MappedByteBuffer> windows = new LinkedHashMap<Long, MappedByteBuffer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> eldest) {
+            return size() > MAX_WINDOWS;
+        }
+    };
+    private final ResultCache.Key key;
+    private final Lane[] lanes;
+    private final long resultsOffset;
+
+    private TraceFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            fileSize = channel.size();
+            if (fileSize < 12) throw new IOException("Not a trace file: " + file);
+            ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 12);
+            if (head.getInt() != MAGIC) throw new IOException("Not a trace file: " + file);
+            int version = head.getInt();
+            if (version != VERSION) throw new IOException("Unsupported trace version " + version + ": " + file);
+            ByteBuffer h = channel.map(FileChannel.MapMode.READ_ONLY, 0, head.getInt());
+            h.position(12);
+            long fingerprint = h.getLong();
+            int processes = h.getInt();
+            byte[] config = new byte[h.getShort() & 0xFFFF];
+            h.get(config);
+            key = new ResultCache.Key(fingerprint, processes, new String(config, StandardCharsets.UTF_8));
+            lanes = new Lane[h.getInt()];
+            for (int l = 0; l < lanes.length; l++) {
+                lanes[l] = new Lane(h.getInt(), h.getInt(), h.getLong(), h.getLong(), h.getLong(),
+                        h.getInt(), h.getInt(), h.getInt());
+            }
+            resultsOffset = h.getLong();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Corrupt trace file: " + file, e);
+        }
+    }
+
+    public static TraceFile open(Path file) throws IOException {
+        return new TraceFile(file);
+    }
+
+    // Fingerprint and size of the workload and the scheduler configuration.
+    public ResultCache.Key key() {
+        return key;
+    }
+
+    public BlockSource[] lanes() {
+        return lanes.clone();
+    }
+
+    public long blocks() {
+        long n = 0;
+        for (Lane lane : lanes) n += lane.size;
+        return n;
+    }
+
+    public int processes() {
+        return key.size;
+    }
+
+    // Copies the result columns onto the heap.
+    public Workload readResults() throws IOException {
+        Workload w = new Workload(Math.max(1, key.size));
+        long offset = resultsOffset;
+        for (int i = 0; i < key.size; i++, offset += RESULT_ROW) {
+            ByteBuffer b = window(offset);
+            int at = (int) (offset - windowStart(offset));
+            int row = w.add(b.getInt(at), b.getInt(at + 4), b.getInt(at + 8));
+            w.remaining[row] = 0;
+            w.start[row] = b.getInt(at + 12);
+            w.completion[row] = b.getInt(at + 16);
+            w.waiting[row] = b.getInt(at + 20);
+            w.turnaround[row] = b.getInt(at + 24);
+            w.response[row] = b.getInt(at + 28);
+        }
+        return w;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        windows.clear();
+        channel.close();
+    }
+
+    private static long windowStart(long offset) {
+        return offset / WINDOW * WINDOW;
+    }
+
+    // Synchronized so lanes read on several threads can share the windows.
+    private synchronized ByteBuffer window(long offset) throws IOException {
+        long start = windowStart(offset);
+        MappedByteBuffer b = windows.get(start);
+        if (b == null) {
+            b = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(fileSize - start, WINDOW + OVERLAP));
+            windows.put(start, b);
+        }
+        return b;
+    }
+
+    // One lane, decoded a group at a time; the last decoded group is kept.
+    private class Lane implements BlockSource {
+        final int size, endTime;
+        final long dataOffset, indexOffset, summaryOffset;
+        final int origin, baseBucket, buckets;
+        private int group = -1;
+        private final int[] pids = new int[GROUP], starts = new int[GROUP], ends = new int[GROUP];
+        private TimelineSummary summary;
+
+        Lane(int size, int endTime, long dataOffset, long indexOffset, long summaryOffset,
+             int origin, int baseBucket, int buckets) {
+            this.size = size;
+            this.endTime = endTime;
+            this.dataOffset = dataOffset;
+            this.indexOffset = indexOffset;
+            this.summaryOffset = summaryOffset;
+            this.origin = origin;
+            this.baseBucket = baseBucket;
+            this.buckets = buckets;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int pid(int i) {
+            load(i / GROUP);
+            return pids[i % GROUP];
+        }
+
+        @Override
+        public int start(int i) {
+            load(i / GROUP);
+            return starts[i % GROUP];
+        }
+
+        @Override
+        public int end(int i) {
+            load(i / GROUP);
+            return ends[i % GROUP];
+        }
+
+        @Override
+        public int endTime() {
+            return endTime;
+        }
+
+        // Its own decoded group over the same windows.
+        @Override
+        public BlockSource concurrentView() {
+            Lane view = new Lane(size, endTime, dataOffset, indexOffset, summaryOffset, origin, baseBucket, buckets);
+            view.summary = summary;
+            return view;
+        }
+
+        // Binary search on the index, then a scan of one group.
+        @Override
+        public int firstEndingAfter(int time) {
+            int lo = 1, hi = (size + GROUP - 1) / GROUP;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (indexInt(mid, 8) <= time) lo = mid + 1;
+                else hi = mid;
+            }
+            int g = lo - 1;
+            if (g < 0 || size == 0) return 0;
+            load(g);
+            int n = Math.min(GROUP, size - g * GROUP);
+            for (int k = 0; k < n; k++) {
+                if (ends[k] > time) return g * GROUP + k;
+            }
+            return g * GROUP + n;
+        }
+
+        TimelineSummary summary() {
+            if (summary == null) {
+                int[] pid = new int[buckets], busy = new int[buckets], weight = new int[buckets];
+                try {
+                    long offset = summaryOffset;
+                    for (int[] column : new int[][]{pid, busy, weight}) {
+                        for (int b = 0; b < buckets; b++, offset += 4) {
+                            column[b] = window(offset).getInt((int) (offset - windowStart(offset)));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                summary = new TimelineSummary(origin, baseBucket, size, pid, busy, weight);
+            }
+            return summary;
+        }
+
+        private int indexInt(int g, int field) {
+            long offset = indexOffset + (long) g * INDEX_ENTRY + field;
+            try {
+                return window(offset).getInt((int) (offset - windowStart(offset)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void load(int g) {
+            if (g == group) return;
+            if (g < 0 || (long) g * GROUP >= size) throw new IndexOutOfBoundsException("Block group " + g);
+            try {
+                long entry = indexOffset + (long) g * INDEX_ENTRY;
+                ByteBuffer index = window(entry);
+                int at = (int) (entry - windowStart(entry));
+                long offset = index.getLong(at);
+                int prevEnd = index.getInt(at + 8), prevPid = index.getInt(at + 12);
+
+                // position() is called on its own: on Java 8 it returns Buffer.
+                ByteBuffer data = window(offset).duplicate();
+                data.position((int) (offset - windowStart(offset)));
+                int n = Math.min(GROUP, size - g * GROUP);
+                for (int k = 0; k < n; k++) {
+                    int start = prevEnd + unzigzag(readVarint(data));
+                    prevPid += unzigzag(readVarint(data));
+                    prevEnd = start + readVarint(data);
+                    pids[k] = prevPid;
+                    starts[k] = start;
+                    ends[k] = prevEnd;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            group = g;
+        }
+    }
+
+    static TimelineSummary summaryOf(BlockSource source) {
+        return source instanceof Lane ? ((Lane) source).summary() : null;
+    }
+
+    // Writes lanes and results (which may be null) to file, replacing it.
+    public static void write(Path file, ResultCache.Key key, BlockSource[] lanes, Workload results)
+            throws IOException {
+        byte[] config = key.config.getBytes(StandardCharsets.UTF_8);
+        if (config.length > 0xFFFF) throw new IllegalArgumentException("Config too long");
+        int headerSize = 12 + 8 + 4 + 2 + config.length + 4 + lanes.length * LANE_ENTRY + 8;
+        int rows = results == null ? 0 : results.size();
+
+        try (Writer out = new Writer(file)) {
+            out.position(headerSize);
+            long[][] offsets = new long[lanes.length][3];
+            TimelineSummary[] summaries = new TimelineSummary[lanes.length];
+            for (int l = 0; l < lanes.length; l++) {
+                BlockSource lane = lanes[l];
+                int groups = (lane.size() + GROUP - 1) / GROUP;
+                long[] groupOffset = new long[groups];
+                int[] groupEnd = new int[groups], groupPid = new int[groups];
+
+                offsets[l][0] = out.position();
+                int prevEnd = 0, prevPid = 0;
+                for (int i = 0; i < lane.size(); i++) {
+                    if (i % GROUP == 0) {
+                        groupOffset[i / GROUP] = out.position();
+                        groupEnd[i / GROUP] = prevEnd;
+                        groupPid[i / GROUP] = prevPid;
+                    }
+                    int pid = lane.pid(i), start = lane.start(i), end = lane.end(i);
+                    out.varint(zigzag(start - prevEnd));
+                    out.varint(zigzag(pid - prevPid));
+                    out.varint(end - start);
+                    prevEnd = end;
+                    prevPid = pid;
+                }
+
+                offsets[l][1] = out.position();
+                for (int g = 0; g < groups; g++) {
+                    out.putLong(groupOffset[g]);
+                    out.putInt(groupEnd[g]);
+                    out.putInt(groupPid[g]);
+                }
+
+                offsets[l][2] = out.position();
+                TimelineSummary summary = new TimelineSummary(lane);
+                summaries[l] = summary;
+                int buckets = summary.buckets(0);
+                for (int b = 0; b < buckets; b++) out.putInt(summary.pid(0, b));
+                for (int b = 0; b < buckets; b++) out.putInt(summary.busy(0, b));
+                for (int b = 0; b < buckets; b++) out.putInt(summary.weight(0, b));
+            }
+
+            long resultsOffset = out.position();
+            for (int row = 0; row < rows; row++) {
+                out.putInt(results.id[row]);
+                out.putInt(results.arrival[row]);
+                out.putInt(results.burst[row]);
+                out.putInt(results.start[row]);
+                out.putInt(results.completion[row]);
+                out.putInt(results.waiting[row]);
+                out.putInt(results.turnaround[row]);
+                out.putInt(results.response[row]);
+            }
+
+            out.position(0);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(headerSize);
+            out.putLong(key.fingerprint);
+            out.putInt(rows);
+            out.putShort((short) config.length);
+            out.put(config);
+            out.putInt(lanes.length);
+            for (int l = 0; l < lanes.length; l++) {
+                out.putInt(lanes[l].size());
+                out.putInt(lanes[l].endTime());
+                out.putLong(offsets[l][0]);
+                out.putLong(offsets[l][1]);
+                out.putLong(offsets[l][2]);
+                out.putInt(summaries[l].origin);
+                out.putInt(summaries[l].baseBucket);
+                out.putInt(summaries[l].buckets(0));
+            }
+            out.putLong(resultsOffset);
+        }
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static int readVarint(ByteBuffer b) {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (x & 0x7F) << shift;
+            if (x >= 0) return v;
+        }
+    }
+
+    // Writer over a sliding read-write mapping. Mapping past the end grows the
+    // file, so on close it is cut back to the furthest byte written.
+    private static class Writer implements Closeable {
+        private static final long WRITE_WINDOW = 1L << 26;
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private long base, length;
+
+        Writer(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        long position() {
+            return base + (buffer == null ? 0 : buffer.position());
+        }
+
+        void position(long position) throws IOException {
+            remap(position);
+        }
+
+        private void remap(long position) throws IOException {
+            length = Math.max(length, position());
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, WRITE_WINDOW);
+            base = position;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer == null || buffer.remaining() < bytes) remap(position());
+        }
+
+        void varint(int v) throws IOException {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buffer.put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            buffer.put((byte) v);
+        }
+
+        void putInt(int v) throws IOException {
+            ensure(4);
+            buffer.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            ensure(8);
+            buffer.putLong(v);
+        }
+
+        void putShort(short v) throws IOException {
+            ensure(2);
+            buffer.putShort(v);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                length = Math.max(length, position());
+                buffer = null;
+                channel.truncate(length);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
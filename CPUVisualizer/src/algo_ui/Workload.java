@@ -0,0 +1,197 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+// Column-per-field process table: one int[] per attribute instead of one
+// SchedulerLogic.Process object per job. Row i of every array is the same job.
+public class Workload {
+    public int[] id, arrival, burst, remaining;
+    // Linux nice level, -20..19; only the fair policies (CFS, EEVDF) use it.
+    public int[] nice;
+    public int[] start, completion, waiting, turnaround, response;
+    private int size;
+
+    public Workload() {
+        this(16);
+    }
+
+    public Workload(int capacity) {
+        capacity = Math.max(capacity, 1);
+        id = new int[capacity];
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        remaining = new int[capacity];
+        nice = new int[capacity];
+        start = new int[capacity];
+        completion = new int[capacity];
+        waiting = new int[capacity];
+        turnaround = new int[capacity];
+        response = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int add(int pid, int arrivalTime, int burstTime) {
+        if (size == id.length) grow(size * 2);
+        int row = size++;
+        id[row] = pid;
+        arrival[row] = arrivalTime;
+        burst[row] = burstTime;
+        nice[row] = 0;
+        resetRow(row);
+        return row;
+    }
+
+    // Reuses row for another process, in its unscheduled state.
+    public void set(int row, int pid, int arrivalTime, int burstTime) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        id[row] = pid;
+        arrival[row] = arrivalTime;
+        burst[row] = burstTime;
+        nice[row] = 0;
+        resetRow(row);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Puts every row back in its unscheduled state.
+    public void reset() {
+        for (int i = 0; i < size; i++) resetRow(i);
+    }
+
+    private void resetRow(int row) {
+        remaining[row] = burst[row];
+        start[row] = -1;
+        completion[row] = 0;
+        waiting[row] = 0;
+        turnaround[row] = 0;
+        response[row] = -1;
+    }
+
+    // Approximate heap taken by the columns, spare capacity included.
+    long heapBytes() {
+        long bytes = 32;
+        for (int[] column : new int[][]{id, arrival, burst, remaining, nice, start, completion, waiting,
+                turnaround, response}) {
+            bytes += 16 + 4L * column.length;
+        }
+        return bytes;
+    }
+
+    private void grow(int capacity) {
+        id = Arrays.copyOf(id, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        nice = Arrays.copyOf(nice, capacity);
+        start = Arrays.copyOf(start, capacity);
+        completion = Arrays.copyOf(completion, capacity);
+        waiting = Arrays.copyOf(waiting, capacity);
+        turnaround = Arrays.copyOf(turnaround, capacity);
+        response = Arrays.copyOf(response, capacity);
+    }
+
+    public void trimToSize() {
+        if (size < id.length) grow(Math.max(size, 1));
+    }
+
+    public Workload copy() {
+        Workload w = new Workload(size);
+        System.arraycopy(id, 0, w.id, 0, size);
+        System.arraycopy(arrival, 0, w.arrival, 0, size);
+        System.arraycopy(burst, 0, w.burst, 0, size);
+        System.arraycopy(remaining, 0, w.remaining, 0, size);
+        System.arraycopy(nice, 0, w.nice, 0, size);
+        System.arraycopy(start, 0, w.start, 0, size);
+        System.arraycopy(completion, 0, w.completion, 0, size);
+        System.arraycopy(waiting, 0, w.waiting, 0, size);
+        System.arraycopy(turnaround, 0, w.turnaround, 0, size);
+        System.arraycopy(response, 0, w.response, 0, size);
+        w.size = size;
+        return w;
+    }
+
+    // Row indices in arrival order, ties kept in row order. Rows that are
+    // already in that order (e.g. from SchedulerLogic.runPolicy) skip the sort.
+    public int[] arrivalOrder() {
+        int[] order = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            if (i > 0 && arrival[i] < arrival[i - 1]) sorted = false;
+        }
+        if (sorted) return order;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) arrival[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    public static Workload of(List<SchedulerLogic.Process> processes) {
+        Workload w = new Workload(processes.size());
+        for (SchedulerLogic.Process p : processes) {
+            int row = w.add(p.id, p.arrival, p.burst);
+            w.nice[row] = p.nice;
+            w.remaining[row] = p.remaining;
+            w.start[row] = p.start;
+            w.completion[row] = p.completion;
+            w.waiting[row] = p.waiting;
+            w.turnaround[row] = p.turnaround;
+            w.response[row] = p.response;
+        }
+        return w;
+    }
+
+    // Fresh Process objects in row order; the workload itself is not touched.
+    public List<SchedulerLogic.Process> toProcesses() {
+        List<SchedulerLogic.Process> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(toProcess(i));
+        }
+        return list;
+    }
+
+    private SchedulerLogic.Process toProcess(int row) {
+        SchedulerLogic.Process p = new SchedulerLogic.Process(id[row], arrival[row], burst[row]);
+        p.nice = nice[row];
+        p.remaining = remaining[row];
+        p.start = start[row];
+        p.completion = completion[row];
+        p.waiting = waiting[row];
+        p.turnaround = turnaround[row];
+        p.response = response[row];
+        return p;
+    }
+
+    // Runs one of the List<Process> engines (e.g. SchedulerLogic::runSJF) on
+    // throwaway Process copies and writes the metrics back into these columns.
+    public Timeline schedule(Function<List<SchedulerLogic.Process>, List<GanttBlock>> engine) {
+        SchedulerLogic.Process[] rows = new SchedulerLogic.Process[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = toProcess(i);
+        }
+        List<GanttBlock> blocks = engine.apply(new ArrayList<>(Arrays.asList(rows)));
+        for (int i = 0; i < size; i++) {
+            SchedulerLogic.Process p = rows[i];
+            remaining[i] = p.remaining;
+            start[i] = p.start;
+            completion[i] = p.completion;
+            waiting[i] = p.waiting;
+            turnaround[i] = p.turnaround;
+            response[i] = p.response;
+        }
+        return Timeline.of(blocks);
+    }
+}
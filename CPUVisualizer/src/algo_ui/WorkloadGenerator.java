@@ -0,0 +1,316 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Seeded synthetic workloads. Rows are produced in chunks of CHUNK processes,
+// each from its own SplittableRandom derived from the seed and the chunk
+// number, so chunks can be generated in parallel and the output is the same
+// for a given seed however many threads ran. Arrivals are built in
+// "operational time" first (a gap per process), then shifted by the sum of
+// the earlier chunks and, for DIURNAL, bent through the inverse of the
+// cumulative load curve.
+//
+// Chunks reach a Sink in pid order, so a workload can go straight into a
+// Workload, an engine or a file without ever being held as table rows.
+public class WorkloadGenerator {
+    public enum Arrivals { UNIFORM, POISSON, DIURNAL }
+    public enum Bursts { UNIFORM, EXPONENTIAL, PARETO, LOGNORMAL }
+
+    // Receives consecutive chunks: pids firstPid .. firstPid + n - 1.
+    public interface Sink {
+        void accept(int firstPid, int[] arrival, int[] burst, int n) throws IOException;
+    }
+
+    private static final int CHUNK = 1 << 16;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: Main --generate COUNT [options]",
+            "  -s, --seed N            default 1",
+            "  -a, --arrivals KIND     uniform|poisson|diurnal, default poisson",
+            "  -b, --bursts KIND       uniform|exponential|pareto|lognormal, default exponential",
+            "      --gap X             mean time between arrivals, default 1",
+            "      --burst X           mean burst, default 5",
+            "      --alpha X           Pareto shape, default 1.5",
+            "      --sigma X           log-normal sigma, default 1",
+            "      --period N          diurnal period, default 1440",
+            "      --amplitude X       diurnal swing 0..1, default 0.8",
+            "      --max-burst N       cap on any burst, default 1000000",
+            "  -o, --output FILE       write to FILE instead of stdout");
+
+    private long seed = 1;
+    private Arrivals arrivals = Arrivals.POISSON;
+    private Bursts bursts = Bursts.EXPONENTIAL;
+    private double meanGap = 1, meanBurst = 5;
+    private double alpha = 1.5, sigma = 1;
+    private int period = 1440;
+    private double amplitude = 0.8;
+    private int maxBurst = 1_000_000;
+
+    public WorkloadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public WorkloadGenerator arrivals(Arrivals arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    public WorkloadGenerator bursts(Bursts bursts) {
+        this.bursts = bursts;
+        return this;
+    }
+
+    public WorkloadGenerator meanGap(double gap) {
+        this.meanGap = Math.max(0, gap);
+        return this;
+    }
+
+    public WorkloadGenerator meanBurst(double burst) {
+        this.meanBurst = Math.max(1, burst);
+        return this;
+    }
+
+    // Pareto shape; must exceed 1 for the mean to exist.
+    public WorkloadGenerator paretoAlpha(double alpha) {
+        if (!(alpha > 1)) throw new IllegalArgumentException("Pareto alpha must be > 1: " + alpha);
+        this.alpha = alpha;
+        return this;
+    }
+
+    public WorkloadGenerator lognormalSigma(double sigma) {
+        this.sigma = Math.max(0, sigma);
+        return this;
+    }
+
+    // Load follows 1 + amplitude * sin(2 pi t / period).
+    public WorkloadGenerator diurnal(int period, double amplitude) {
+        this.period = Math.max(1, period);
+        this.amplitude = Math.max(0, Math.min(1, amplitude));
+        return this;
+    }
+
+    public WorkloadGenerator maxBurst(int max) {
+        this.maxBurst = Math.max(1, max);
+        return this;
+    }
+
+    public Workload generate(int count) {
+        Workload w = new Workload(Math.max(count, 1));
+        try {
+            generate(count, (first, arrival, burst, n) -> {
+                for (int i = 0; i < n; i++) w.add(first + i, arrival[i], burst[i]);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return w;
+    }
+
+    // Hands count processes to sink in pid order. Chunks are generated a
+    // window at a time in parallel, so memory stays bounded for any count.
+    public void generate(long count, Sink sink) throws IOException {
+        forEachChunk(count, false, c -> sink.accept(c.firstPid, c.arrival, c.burst, c.n));
+    }
+
+    // Writes "pid arrival burst" lines, the format BatchRunner reads. Lines
+    // are formatted in the same parallel pass that finishes each chunk.
+    public void write(long count, OutputStream out) throws IOException {
+        out.write("# pid arrival burst\n".getBytes(StandardCharsets.US_ASCII));
+        forEachChunk(count, true, c -> out.write(c.text));
+        out.flush();
+    }
+
+    private interface ChunkConsumer {
+        void accept(Chunk c) throws IOException;
+    }
+
+    private void forEachChunk(long count, boolean text, ChunkConsumer consumer) throws IOException {
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Process count must be 0.." + Integer.MAX_VALUE + ": " + count);
+        }
+        int window = Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+        long chunks = (count + CHUNK - 1) / CHUNK;
+        double offset = 0;
+        for (long first = 0; first < chunks; first += window) {
+            int m = (int) Math.min(window, chunks - first);
+            long base = first;
+            Chunk[] batch = new Chunk[m];
+            IntStream.range(0, m).parallel().forEach(k -> batch[k] = chunk(base + k, count));
+            for (Chunk c : batch) {
+                c.place(offset);
+                offset += c.span;
+            }
+            IntStream.range(0, m).parallel().forEach(k -> batch[k].finish(this, text));
+            for (Chunk c : batch) consumer.accept(c);
+        }
+    }
+
+    private Chunk chunk(long index, long count) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        int n = (int) Math.min(CHUNK, count - index * CHUNK);
+        Chunk c = new Chunk((int) (index * CHUNK), n);
+        double t = 0;
+        for (int i = 0; i < n; i++) {
+            t += gap(random);
+            c.time[i] = t;
+            c.burst[i] = burst(random);
+        }
+        c.span = t;
+        return c;
+    }
+
+    private double gap(SplittableRandom random) {
+        if (arrivals == Arrivals.UNIFORM) return random.nextDouble() * 2 * meanGap;
+        return -meanGap * Math.log(1 - random.nextDouble());
+    }
+
+    private int burst(SplittableRandom random) {
+        double x;
+        switch (bursts) {
+            case UNIFORM:
+                x = 1 + random.nextDouble() * (2 * meanBurst - 1);
+                break;
+            case PARETO: {
+                double scale = meanBurst * (alpha - 1) / alpha;
+                x = scale / Math.pow(1 - random.nextDouble(), 1 / alpha);
+                break;
+            }
+            case LOGNORMAL:
+                x = Math.exp(Math.log(meanBurst) - sigma * sigma / 2 + sigma * gaussian(random));
+                break;
+            default:
+                x = -meanBurst * Math.log(1 - random.nextDouble());
+        }
+        return (int) Math.max(1, Math.min(maxBurst, Math.ceil(x)));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble(), v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    // Clock time at which the cumulative diurnal load reaches u, where the
+    // load integrates to t + amplitude * period / 2pi * (1 - cos(2pi t / period)).
+    // Newton from t = u; the load is monotone, so bisection backs it up.
+    private double diurnalTime(double u) {
+        double w = 2 * Math.PI / period, k = amplitude / w;
+        double lo = Math.max(0, u - 2 * k), hi = u, t = u;
+        for (int i = 0; i < 50; i++) {
+            double f = t + k * (1 - Math.cos(w * t)) - u;
+            if (Math.abs(f) < 1e-6) break;
+            if (f > 0) hi = t;
+            else lo = t;
+            double d = 1 + amplitude * Math.sin(w * t);
+            double next = d > 1e-9 ? t - f / d : lo;
+            t = next > lo && next < hi ? next : (lo + hi) / 2;
+        }
+        return t;
+    }
+
+    private static class Chunk {
+        final int firstPid, n;
+        final double[] time;
+        final int[] arrival, burst;
+        double span;
+        byte[] text;
+
+        Chunk(int firstPid, int n) {
+            this.firstPid = firstPid;
+            this.n = n;
+            this.time = new double[n];
+            this.arrival = new int[n];
+            this.burst = new int[n];
+        }
+
+        void place(double offset) {
+            for (int i = 0; i < n; i++) time[i] += offset;
+        }
+
+        // Arrival times past Integer.MAX_VALUE are clamped.
+        void finish(WorkloadGenerator g, boolean format) {
+            for (int i = 0; i < n; i++) {
+                double t = g.arrivals == Arrivals.DIURNAL ? g.diurnalTime(time[i]) : time[i];
+                arrival[i] = (int) Math.min(Integer.MAX_VALUE, Math.floor(t));
+            }
+            if (format) text = format();
+        }
+
+        private byte[] format() {
+            byte[] buf = new byte[n * 33];
+            int p = 0;
+            for (int i = 0; i < n; i++) {
+                p = digits(buf, p, firstPid + i);
+                buf[p++] = ' ';
+                p = digits(buf, p, arrival[i]);
+                buf[p++] = ' ';
+                p = digits(buf, p, burst[i]);
+                buf[p++] = '\n';
+            }
+            return Arrays.copyOf(buf, p);
+        }
+
+        // Non-negative values only.
+        private static int digits(byte[] buf, int p, int v) {
+            int len = 1;
+            for (int x = v; x >= 10; x /= 10) len++;
+            for (int i = p + len - 1; i >= p; i--) {
+                buf[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            return p + len;
+        }
+    }
+
+    public static void main(String[] args) {
+        WorkloadGenerator g = new WorkloadGenerator();
+        long count;
+        Path output = null;
+        try {
+            if (args.length < 2) throw new IllegalArgumentException("Missing process count.");
+            count = Long.parseLong(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                String arg = args[i];
+                String value = i + 1 < args.length ? args[++i] : null;
+                if (value == null) throw new IllegalArgumentException("Missing value for " + arg);
+                switch (arg) {
+                    case "-s": case "--seed": g.seed(Long.parseLong(value)); break;
+                    case "-a": case "--arrivals": g.arrivals(Arrivals.valueOf(value.toUpperCase(Locale.ROOT))); break;
+                    case "-b": case "--bursts": g.bursts(Bursts.valueOf(value.toUpperCase(Locale.ROOT))); break;
+                    case "--gap": g.meanGap(Double.parseDouble(value)); break;
+                    case "--burst": g.meanBurst(Double.parseDouble(value)); break;
+                    case "--alpha": g.paretoAlpha(Double.parseDouble(value)); break;
+                    case "--sigma": g.lognormalSigma(Double.parseDouble(value)); break;
+                    case "--period": g.diurnal(Integer.parseInt(value), g.amplitude); break;
+                    case "--amplitude": g.diurnal(g.period, Double.parseDouble(value)); break;
+                    case "--max-burst": g.maxBurst(Integer.parseInt(value)); break;
+                    case "-o": case "--output": output = Paths.get(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(
+                output == null ? System.out : Files.newOutputStream(output), 1 << 20)) {
+            g.write(count, out);
+        } catch (IOException e) {
+            System.err.println("generate: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
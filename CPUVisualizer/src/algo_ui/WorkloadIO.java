@@ -0,0 +1,644 @@
+package CPUVisualizer.src.algo_ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+// Streaming workload import and export. The format follows the file
+// extension (the ones offered by the UI's extension selector):
+//   .txt .log .dat  whitespace-separated "pid arrival burst [metrics...]"
+//   .csv            the same, comma-separated, with a header line
+//   .json           an array of {"pid":..,"arrival":..,"burst":..} objects
+//   .xml            <process pid=".." arrival=".." burst=".."/> elements
+//                   (child elements with those names work too)
+//   .html           a table with one process per <tr>
+// Readers scan raw bytes from a FileChannel and hand each row straight to a
+// RowSink, e.g. Workload::add; nothing is split into Strings per line.
+// Lines or records that do not hold numbers are skipped, like headers, but
+// a number that does not fit in an int, or a negative arrival or burst,
+// fails the read with its line number. Rows without a pid get one past the
+// largest pid so far.
+// Writers stream the workload's columns, with the metric columns when asked.
+public final class WorkloadIO {
+    public enum Format {
+        TEXT, CSV, JSON, XML, HTML;
+
+        public static Format of(Path file) {
+            return of(file.getFileName().toString());
+        }
+
+        // By file name or bare extension such as ".csv".
+        public static Format of(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".json")) return JSON;
+            if (name.endsWith(".xml")) return XML;
+            if (name.endsWith(".html") || name.endsWith(".htm")) return HTML;
+            return TEXT;
+        }
+    }
+
+    public interface RowSink {
+        void row(int pid, int arrival, int burst);
+    }
+
+    static final String[] COLUMNS = {
+            "pid", "arrival", "burst", "start", "completion", "waiting", "turnaround", "response"
+    };
+
+    private static final int BUFFER = 1 << 20;
+
+    private WorkloadIO() {
+    }
+
+    public static Workload read(Path file) throws IOException {
+        // Sized for short text rows so large files grow the columns at most once or twice.
+        long guess = Files.size(file) / 16;
+        Workload w = new Workload((int) Math.max(16, Math.min(1 << 26, guess)));
+        read(file, Format.of(file), w::add);
+        w.trimToSize();
+        return w;
+    }
+
+    public static void read(Path file, Format format, RowSink sink) throws IOException {
+        Scanner scanner;
+        switch (format) {
+            case JSON:
+                scanner = new JsonScanner(sink);
+                break;
+            case XML:
+            case HTML:
+                scanner = new MarkupScanner(sink, format == Format.HTML);
+                break;
+            default:
+                scanner = new DelimitedScanner(sink);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+            byte[] bytes = buffer.array();
+            while (channel.read(buffer) >= 0) {
+                scanner.scan(bytes, buffer.position());
+                buffer.clear();
+            }
+            scanner.finish();
+        }
+    }
+
+    // Delimited lines from a stream that delivers them in pieces, e.g. a
+    // socket or a pipe: each row reaches sink as soon as its line ends.
+    static void readLines(InputStream in, RowSink sink) throws IOException {
+        DelimitedScanner scanner = new DelimitedScanner(sink);
+        byte[] bytes = new byte[8192];
+        int n;
+        while ((n = in.read(bytes)) >= 0) {
+            scanner.scan(bytes, n);
+        }
+        scanner.finish();
+    }
+
+    private interface Scanner {
+        void scan(byte[] b, int n) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static IOException malformed(int line, String problem) {
+        return new IOException("line " + line + ": " + problem);
+    }
+
+    // Pids for the rows of one file: explicit ones as given, missing ones
+    // numbered on from the largest seen, so the two never collide in order.
+    private static final class Pids {
+        private long next;
+
+        int explicit(int pid) {
+            next = Math.max(next, pid + 1L);
+            return pid;
+        }
+
+        int implicit(int line) throws IOException {
+            if (next > Integer.MAX_VALUE) throw malformed(line, "no pid left for a row without one");
+            return (int) next++;
+        }
+    }
+
+    // Hands a row to sink, rejecting times no scheduler can run.
+    private static void emit(RowSink sink, int line, int pid, int arrival, int burst) throws IOException {
+        if (arrival < 0) throw malformed(line, "negative arrival " + arrival);
+        if (burst < 0) throw malformed(line, "negative burst " + burst);
+        sink.row(pid, arrival, burst);
+    }
+
+    // Integer accumulator shared by the scanners: digits with an optional
+    // leading minus; other characters are noted so callers can reject or
+    // ignore them.
+    private static final class Field {
+        long value;
+        boolean negative, digits, letters, overflow;
+
+        void reset() {
+            value = 0;
+            negative = digits = letters = overflow = false;
+        }
+
+        void accept(byte c) {
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE + 1L) overflow = true;
+                digits = true;
+            } else if (c == '-' && !digits) {
+                negative = true;
+            } else {
+                letters = true;
+            }
+        }
+
+        // Digits that do not fit in an int, as opposed to no number at all.
+        boolean isOutOfRange() {
+            return digits && !isInt();
+        }
+
+        boolean isInt() {
+            return digits && !overflow && (negative ? -value : value) >= Integer.MIN_VALUE
+                    && (negative ? -value : value) <= Integer.MAX_VALUE;
+        }
+
+        int get() {
+            return (int) (negative ? -value : value);
+        }
+    }
+
+    // Lines of "pid arrival burst" or "arrival burst" separated by commas,
+    // semicolons or whitespace; quotes are ignored, the pid may carry a
+    // prefix such as "P12", and columns after the third are not read.
+    private static final class DelimitedScanner implements Scanner {
+        private final RowSink sink;
+        private final Field field = new Field();
+        private final int[] values = new int[3];
+        private final Pids pids = new Pids();
+        // Line being read, 1-based; MarkupScanner sets it for HTML rows.
+        int line = 1;
+        private int fields;
+        private boolean bad, comment, firstHasLetters, inField;
+
+        DelimitedScanner(RowSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void scan(byte[] b, int n) throws IOException {
+            for (int i = 0; i < n; i++) accept(b[i]);
+        }
+
+        void accept(byte c) throws IOException {
+            if (c == '\n' || c == '\r') {
+                endLine();
+                if (c == '\n') line++;
+            } else if (comment) {
+                // rest of a # line
+            } else if (c == ',' || c == ';' || c == ' ' || c == '\t') {
+                endField();
+            } else if (c == '#' && fields == 0 && !inField) {
+                comment = true;
+            } else if (c != '"') {
+                inField = true;
+                if (fields < 3) field.accept(c);
+            }
+        }
+
+        void endField() throws IOException {
+            if (!inField) return;
+            inField = false;
+            if (fields < 3) {
+                if (field.isOutOfRange() && !comment) {
+                    throw malformed(line, "field " + (fields + 1) + " does not fit in an int");
+                }
+                if (fields == 0) {
+                    firstHasLetters = field.letters;
+                } else if (field.letters) {
+                    bad = true;
+                }
+                if (field.isInt()) values[fields] = field.get();
+                else bad = true;
+            }
+            fields++;
+            field.reset();
+        }
+
+        void endLine() throws IOException {
+            endField();
+            if (!comment && !bad) {
+                if (fields >= 3) {
+                    emit(sink, line, pids.explicit(values[0]), values[1], values[2]);
+                } else if (fields == 2 && !firstHasLetters) {
+                    emit(sink, line, pids.implicit(line), values[0], values[1]);
+                }
+            }
+            fields = 0;
+            bad = comment = firstHasLetters = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            endLine();
+        }
+    }
+
+    // Reads the row fields from the names used by COLUMNS, plus "id" and the
+    // camelCase / snake_case forms "arrivalTime" and "burst_time".
+    private static int fieldIndex(CharSequence name) {
+        String key = name.toString().toLowerCase(Locale.ROOT).replace("_", "");
+        switch (key) {
+            case "pid": case "id":
+                return 0;
+            case "arrival": case "arrivaltime":
+                return 1;
+            case "burst": case "bursttime":
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    // The three fields of the record being assembled by the JSON and XML scanners.
+    private static final class Record {
+        final int[] values = new int[3];
+        private final Pids pids = new Pids();
+        boolean pid, arrival, burst;
+
+        void set(int index, Field f, int line) throws IOException {
+            if (index < 0) return;
+            if (f.isOutOfRange()) throw malformed(line, COLUMNS[index] + " does not fit in an int");
+            if (!f.isInt()) return;
+            values[index] = f.get();
+            if (index == 0) pid = true;
+            else if (index == 1) arrival = true;
+            else burst = true;
+        }
+
+        // Emits the record if it has an arrival and a burst.
+        void commit(RowSink sink, int line) throws IOException {
+            boolean complete = arrival && burst;
+            boolean hasPid = pid;
+            pid = arrival = burst = false;
+            if (complete) {
+                emit(sink, line, hasPid ? pids.explicit(values[0]) : pids.implicit(line), values[1], values[2]);
+            }
+        }
+    }
+
+    // Objects whose keys name row fields; values may be numbers or strings
+    // such as "P3". Nesting is allowed; each object is its own record.
+    private static final class JsonScanner implements Scanner {
+        private final RowSink sink;
+        private final StringBuilder key = new StringBuilder();
+        private final Field field = new Field();
+        private final Record record = new Record();
+        private boolean inString, escape, inKey, expectValue, inNumber;
+        private int target = -1, line = 1;
+
+        JsonScanner(RowSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void scan(byte[] b, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                byte c = b[i];
+                if (c == '\n') line++;
+                if (inString) {
+                    if (escape) {
+                        escape = false;
+                    } else if (c == '\\') {
+                        escape = true;
+                    } else if (c == '"') {
+                        inString = false;
+                        if (!inKey) {
+                            // letters in a string value are a prefix, as in "P3"
+                            field.letters = false;
+                            record.set(target, field, line);
+                            target = -1;
+                        }
+                    } else if (inKey) {
+                        key.append((char) c);
+                    } else {
+                        field.accept(c);
+                    }
+                    continue;
+                }
+                if (inNumber && !(c >= '0' && c <= '9' || c == '-')) endNumber();
+                switch (c) {
+                    case '"':
+                        inString = true;
+                        inKey = !expectValue;
+                        if (inKey) key.setLength(0);
+                        else field.reset();
+                        expectValue = false;
+                        break;
+                    case ':':
+                        target = fieldIndex(key);
+                        expectValue = true;
+                        break;
+                    case '{':
+                        expectValue = false;
+                        break;
+                    case '}':
+                        record.commit(sink, line);
+                        expectValue = false;
+                        break;
+                    case ',':
+                        expectValue = false;
+                        target = -1;
+                        break;
+                    default:
+                        if (expectValue && (c >= '0' && c <= '9' || c == '-')) {
+                            inNumber = true;
+                            field.reset();
+                            field.accept(c);
+                            expectValue = false;
+                        } else if (inNumber) {
+                            field.accept(c);
+                        }
+                }
+            }
+        }
+
+        private void endNumber() throws IOException {
+            inNumber = false;
+            record.set(target, field, line);
+            target = -1;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (inNumber) endNumber();
+        }
+    }
+
+    // Tags and text. For XML a record is any element whose attributes or
+    // child elements name row fields, emitted when it closes. For HTML each
+    // <tr> is a row read positionally from its <td> cells, like a text line.
+    private static final class MarkupScanner implements Scanner {
+        private final RowSink sink;
+        private final boolean html;
+        private final Field field = new Field();
+        private final Record record = new Record();
+        private final StringBuilder name = new StringBuilder();
+        private final StringBuilder attribute = new StringBuilder();
+        private final DelimitedScanner cells;
+        private boolean inTag, closing, selfClosing, inName, inValue, skipping;
+        private byte quote;
+        private int textTarget = -1, line = 1;
+        private boolean inCell;
+
+        MarkupScanner(RowSink sink, boolean html) {
+            this.sink = sink;
+            this.html = html;
+            this.cells = new DelimitedScanner(sink);
+        }
+
+        @Override
+        public void scan(byte[] b, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                byte c = b[i];
+                if (c == '\n') line++;
+                if (!inTag) {
+                    if (c == '<') {
+                        startTag();
+                    } else if (html) {
+                        // line breaks inside a row must not end it
+                        if (inCell) cells.accept(c <= ' ' ? (byte) ' ' : c);
+                    } else if (textTarget >= 0) {
+                        if (c > ' ') field.accept(c);
+                    }
+                    continue;
+                }
+                if (skipping) {
+                    // comments, declarations and processing instructions end at '>'
+                    if (c == '>') inTag = skipping = false;
+                } else if (inValue) {
+                    if (c == quote) {
+                        inValue = false;
+                        field.letters = false;
+                        if (!html) record.set(fieldIndex(attribute), field, line);
+                        attribute.setLength(0);
+                    } else {
+                        field.accept(c);
+                    }
+                } else if (c == '>') {
+                    endTag();
+                } else if (inName) {
+                    if (c == '/' && name.length() == 0) {
+                        closing = true;
+                    } else if ((c == '!' || c == '?') && name.length() == 0) {
+                        skipping = true;
+                    } else if (c <= ' ' || c == '/') {
+                        inName = false;
+                        selfClosing = c == '/';
+                    } else {
+                        name.append((char) c);
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                    inValue = true;
+                    field.reset();
+                } else if (c == '/') {
+                    selfClosing = true;
+                } else if (c > ' ' && c != '=') {
+                    if (selfClosing) selfClosing = false;
+                    attribute.append((char) c);
+                }
+            }
+        }
+
+        private void startTag() {
+            inTag = inName = true;
+            closing = selfClosing = false;
+            name.setLength(0);
+            attribute.setLength(0);
+        }
+
+        private void endTag() throws IOException {
+            inTag = false;
+            String tag = name.toString().toLowerCase(Locale.ROOT);
+            if (html) {
+                endHtmlTag(tag);
+                return;
+            }
+            int index = fieldIndex(tag);
+            if (!closing) {
+                if (index >= 0 && !selfClosing) {
+                    textTarget = index;
+                    field.reset();
+                    return;
+                }
+                if (!selfClosing) return;
+            }
+            if (closing && index >= 0 && index == textTarget) {
+                field.letters = false;
+                record.set(index, field, line);
+                textTarget = -1;
+            } else {
+                record.commit(sink, line);
+            }
+        }
+
+        private void endHtmlTag(String tag) throws IOException {
+            cells.line = line;
+            if (tag.equals("td") || tag.equals("th")) {
+                inCell = !closing;
+                cells.endField();
+            } else if (tag.equals("tr")) {
+                inCell = false;
+                cells.endLine();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (html) cells.finish();
+        }
+    }
+
+    public static void write(Path file, Workload w, boolean metrics) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out, Format.of(file), w, metrics);
+        }
+    }
+
+    // Writes pid, arrival and burst for every row, followed by the metric
+    // columns of COLUMNS when metrics is set. Does not close out.
+    public static void write(OutputStream out, Format format, Workload w, boolean metrics) throws IOException {
+        Writer o = new Writer(out);
+        int columns = metrics ? COLUMNS.length : 3;
+        switch (format) {
+            case CSV:
+            case TEXT: {
+                byte separator = (byte) (format == Format.CSV ? ',' : ' ');
+                if (format == Format.TEXT) o.text("# ");
+                for (int c = 0; c < columns; c++) {
+                    if (c > 0) o.put(separator);
+                    o.text(COLUMNS[c]);
+                }
+                o.put((byte) '\n');
+                for (int row = 0; row < w.size(); row++) {
+                    for (int c = 0; c < columns; c++) {
+                        if (c > 0) o.put(separator);
+                        o.number(value(w, row, c));
+                    }
+                    o.put((byte) '\n');
+                }
+                break;
+            }
+            case JSON:
+                o.text("[");
+                for (int row = 0; row < w.size(); row++) {
+                    o.text(row == 0 ? "\n  {" : ",\n  {");
+                    for (int c = 0; c < columns; c++) {
+                        o.text(c == 0 ? "\"" : ", \"").text(COLUMNS[c]).text("\": ");
+                        o.number(value(w, row, c));
+                    }
+                    o.put((byte) '}');
+                }
+                o.text("\n]\n");
+                break;
+            case XML:
+                o.text("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<workload>\n");
+                for (int row = 0; row < w.size(); row++) {
+                    o.text("  <process");
+                    for (int c = 0; c < columns; c++) {
+                        o.put((byte) ' ').text(COLUMNS[c]).text("=\"");
+                        o.number(value(w, row, c));
+                        o.put((byte) '"');
+                    }
+                    o.text("/>\n");
+                }
+                o.text("</workload>\n");
+                break;
+            case HTML:
+                o.text("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Workload</title></head><body>\n");
+                o.text("<table>\n<tr>");
+                for (int c = 0; c < columns; c++) o.text("<th>").text(COLUMNS[c]).text("</th>");
+                o.text("</tr>\n");
+                for (int row = 0; row < w.size(); row++) {
+                    o.text("<tr>");
+                    for (int c = 0; c < columns; c++) {
+                        o.text("<td>");
+                        o.number(value(w, row, c));
+                        o.text("</td>");
+                    }
+                    o.text("</tr>\n");
+                }
+                o.text("</table>\n</body></html>\n");
+                break;
+        }
+        o.flush();
+    }
+
+    private static int value(Workload w, int row, int column) {
+        switch (column) {
+            case 0: return w.id[row];
+            case 1: return w.arrival[row];
+            case 2: return w.burst[row];
+            case 3: return w.start[row];
+            case 4: return w.completion[row];
+            case 5: return w.waiting[row];
+            case 6: return w.turnaround[row];
+            default: return w.response[row];
+        }
+    }
+
+    // ASCII output formatted straight into a byte buffer.
+    private static final class Writer {
+        private final OutputStream out;
+        private final byte[] buf = new byte[1 << 16];
+        private int p;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        Writer put(byte b) throws IOException {
+            if (p == buf.length) drain();
+            buf[p++] = b;
+            return this;
+        }
+
+        Writer text(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) put((byte) s.charAt(i));
+            return this;
+        }
+
+        void number(int v) throws IOException {
+            if (p + 11 > buf.length) drain();
+            long x = v;
+            if (x < 0) {
+                buf[p++] = '-';
+                x = -x;
+            }
+            int len = 1;
+            for (long y = x; y >= 10; y /= 10) len++;
+            for (int i = p + len - 1; i >= p; i--) {
+                buf[i] = (byte) ('0' + x % 10);
+                x /= 10;
+            }
+            p += len;
+        }
+
+        private void drain() throws IOException {
+            out.write(buf, 0, p);
+            p = 0;
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package CPUVisualizer.src.algo_ui;
+
+import javax.swing.RowFilter;
+import javax.swing.table.AbstractTableModel;
+
+// Table model that reads straight from a Workload's columns. Nothing is
+// formatted or boxed until JTable asks for a cell, so only visible rows cost
+// anything; sorting and filtering go through a RowSorter's index map instead
+// of copies of the data.
+public class WorkloadTableModel extends AbstractTableModel {
+    private static final String[] INPUT_COLUMNS = {"PID", "Arrival", "Burst", "Nice"};
+    private static final String[] METRIC_COLUMNS = {
+            "PID", "Arrival", "Burst", "Start", "Completion", "TAT", "Waiting", "Response"
+    };
+
+    private final boolean editable;
+    private final String[] columns;
+    private Workload workload = new Workload();
+
+    private WorkloadTableModel(boolean editable, String[] columns) {
+        this.editable = editable;
+        this.columns = columns;
+    }
+
+    // PID/Arrival/Burst/Nice, with all but the PID editable.
+    public static WorkloadTableModel input() {
+        return new WorkloadTableModel(true, INPUT_COLUMNS);
+    }
+
+    // Read-only view of the per-process results.
+    public static WorkloadTableModel metrics() {
+        return new WorkloadTableModel(false, METRIC_COLUMNS);
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public void setWorkload(Workload workload) {
+        this.workload = workload;
+        fireTableDataChanged();
+    }
+
+    public void addRow(int pid, int arrival, int burst) {
+        int row = workload.add(pid, arrival, burst);
+        fireTableRowsInserted(row, row);
+    }
+
+    public void clear() {
+        workload = new Workload();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return workload.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return valueAt(row, column);
+    }
+
+    // Cells are looked up by column name, since the two layouts differ
+    // after Burst.
+    int valueAt(int row, int column) {
+        Workload w = workload;
+        switch (columns[column]) {
+            case "PID":        return w.id[row];
+            case "Arrival":    return w.arrival[row];
+            case "Burst":      return w.burst[row];
+            case "Nice":       return w.nice[row];
+            case "Start":      return w.start[row];
+            case "Completion": return w.completion[row];
+            case "TAT":        return w.turnaround[row];
+            case "Waiting":    return w.waiting[row];
+            case "Response":   return w.response[row];
+            default: throw new IndexOutOfBoundsException("Column: " + column);
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return editable && column > 0;
+    }
+
+    // Smallest value a cell in this column accepts: bursts must be positive,
+    // nice levels run from -20.
+    public int minimumValue(int column) {
+        switch (columns[column]) {
+            case "Burst": return 1;
+            case "Nice":  return -20;
+            default:      return 0;
+        }
+    }
+
+    // Largest value a cell in this column accepts: nice levels end at 19.
+    public int maximumValue(int column) {
+        return columns[column].equals("Nice") ? 19 : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (!isCellEditable(row, column) || !(value instanceof Integer)) return;
+        int v = (Integer) value;
+        if (v < minimumValue(column) || v > maximumValue(column)) return;
+        switch (columns[column]) {
+            case "Arrival":
+                workload.arrival[row] = v;
+                break;
+            case "Nice":
+                workload.nice[row] = v;
+                break;
+            default:
+                workload.burst[row] = v;
+                workload.remaining[row] = v;
+        }
+        fireTableCellUpdated(row, column);
+    }
+
+    // Filter for a RowSorter: "12" or "P12" keeps that PID, "<column> <op> <n>"
+    // (e.g. "waiting > 10", "burst<=3") compares a column. Returns null (no
+    // filter) for blank text and throws IllegalArgumentException otherwise.
+    public RowFilter<WorkloadTableModel, Integer> filter(String text) {
+        String s = text.trim();
+        if (s.isEmpty()) return null;
+        if (s.matches("[pP]?\\d+")) {
+            int pid = Integer.parseInt(s.replaceAll("[^0-9]", ""));
+            return compare(0, "=", pid);
+        }
+        java.util.regex.Matcher m = java.util.regex.Pattern
+                .compile("([A-Za-z]+)\\s*(<=|>=|!=|=|<|>)\\s*(-?\\d+)").matcher(s);
+        if (!m.matches()) throw new IllegalArgumentException("Expected e.g. \"waiting > 10\"");
+        int column = -1;
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c].equalsIgnoreCase(m.group(1))) column = c;
+        }
+        if (column < 0) throw new IllegalArgumentException("Unknown column: " + m.group(1));
+        return compare(column, m.group(2), Integer.parseInt(m.group(3)));
+    }
+
+    private static RowFilter<WorkloadTableModel, Integer> compare(int column, String op, int bound) {
+        return new RowFilter<WorkloadTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends WorkloadTableModel, ? extends Integer> entry) {
+                int v = entry.getModel().valueAt(entry.getIdentifier(), column);
+                switch (op) {
+                    case "<":  return v < bound;
+                    case "<=": return v <= bound;
+                    case ">":  return v > bound;
+                    case ">=": return v >= bound;
+                    case "!=": return v != bound;
+                    default:   return v == bound;
+                }
+            }
+        };
+    }
+}